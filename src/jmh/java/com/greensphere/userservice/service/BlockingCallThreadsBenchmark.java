@@ -0,0 +1,70 @@
+package com.greensphere.userservice.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to serve a burst of requests that each block for a fixed time, as a JDBC query or a call
+ * to the notification service does, on a pool sized like Tomcat's default 200 platform threads
+ * against one virtual thread per request (spring.threads.virtual.enabled=true). Run with
+ * ./gradlew jmh -PjmhIncludes=BlockingCallThreads.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class BlockingCallThreadsBenchmark {
+
+    private static final int PLATFORM_THREADS = 200;
+
+    @Param({"200", "1000", "4000"})
+    private int requests;
+
+    @Param({"20"})
+    private long blockMillis;
+
+    private ExecutorService platformThreads;
+    private ExecutorService virtualThreads;
+
+    @Setup
+    public void setUp() {
+        platformThreads = Executors.newFixedThreadPool(PLATFORM_THREADS);
+        virtualThreads = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @TearDown
+    public void tearDown() {
+        platformThreads.shutdownNow();
+        virtualThreads.shutdownNow();
+    }
+
+    @Benchmark
+    public void platformThreads() throws Exception {
+        serve(platformThreads);
+    }
+
+    @Benchmark
+    public void virtualThreads() throws Exception {
+        serve(virtualThreads);
+    }
+
+    private void serve(ExecutorService executor) throws Exception {
+        List<Future<?>> futures = new ArrayList<>(requests);
+        for (int i = 0; i < requests; i++) {
+            futures.add(executor.submit(() -> {
+                Thread.sleep(blockMillis);
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.greensphere.userservice.utils;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Signing and verifying an HS512 token with the prebuilt JwtKeyRing, against building the
+ * Algorithm and JWTVerifier on every call as JwtUtil and JWTRequestFilter used to. Run with
+ * ./gradlew jmh -PjmhIncludes=JwtKeyRing and add -prof gc to the JMH arguments to compare the
+ * allocation per operation as well.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class JwtKeyRingBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret-benchmark-secret";
+
+    private JwtKeyRing keyRing;
+    private String token;
+    private Date expiresAt;
+
+    @Setup
+    public void setUp() {
+        keyRing = new JwtKeyRing(SECRET, "benchmark", "", JwtKeyRing.HS512, "", "");
+        expiresAt = new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1));
+        token = JWT.create()
+                .withKeyId(keyRing.getActiveKeyId())
+                .withSubject("user")
+                .withClaim("authorities", List.of("ROLE_APP_USER"))
+                .withExpiresAt(expiresAt)
+                .sign(keyRing.getSigningAlgorithm());
+    }
+
+    @Benchmark
+    public DecodedJWT verifyPerCall() {
+        return JWT.require(Algorithm.HMAC512(SECRET.getBytes())).build().verify(token);
+    }
+
+    @Benchmark
+    public DecodedJWT verifyKeyRing() {
+        return keyRing.verify(token);
+    }
+
+    @Benchmark
+    public String signPerCall() {
+        return JWT.create()
+                .withSubject("user")
+                .withExpiresAt(expiresAt)
+                .sign(Algorithm.HMAC512(SECRET.getBytes()));
+    }
+
+    @Benchmark
+    public String signKeyRing() {
+        return JWT.create()
+                .withKeyId(keyRing.getActiveKeyId())
+                .withSubject("user")
+                .withExpiresAt(expiresAt)
+                .sign(keyRing.getSigningAlgorithm());
+    }
+}
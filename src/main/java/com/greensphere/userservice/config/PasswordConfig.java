@@ -1,15 +1,28 @@
 package com.greensphere.userservice.config;
 
+import com.greensphere.userservice.utils.AdmissionControlledPasswordEncoder;
+import com.greensphere.userservice.utils.HashingExecutor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.Map;
+
 @Configuration
 public class PasswordConfig {
 
+    public static final String BCRYPT_ID = "bcrypt";
+
+    // Hashes are stored as {bcrypt}$2a$<cost>$..., so the algorithm and cost can change without a reset
     @Bean
-    PasswordEncoder getEncoder() {
-        return new BCryptPasswordEncoder();
+    PasswordEncoder getEncoder(@Value("${password.bcrypt.strength:10}") int strength, HashingExecutor passwordHashingExecutor) {
+        BCryptPasswordEncoder bCryptPasswordEncoder = new BCryptPasswordEncoder(strength);
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(BCRYPT_ID, Map.of(BCRYPT_ID, bCryptPasswordEncoder));
+        // hashes written before the {id} prefix was introduced are plain BCrypt
+        encoder.setDefaultPasswordEncoderForMatches(bCryptPasswordEncoder);
+        return new AdmissionControlledPasswordEncoder(encoder, passwordHashingExecutor);
     }
 }
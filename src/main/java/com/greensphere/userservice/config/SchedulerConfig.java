@@ -0,0 +1,28 @@
+package com.greensphere.userservice.config;
+
+import com.greensphere.userservice.utils.HashingExecutor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+@Configuration
+public class SchedulerConfig {
+
+    // blocking JPA work for the reactive endpoints, kept off the servlet container threads
+    @Bean(destroyMethod = "dispose")
+    public Scheduler jdbcScheduler(@Value("${scheduler.jdbc.threads:20}") int threads,
+                                   @Value("${scheduler.jdbc.queue-capacity:1000}") int queueCapacity) {
+        return Schedulers.newBoundedElastic(threads, queueCapacity, "jdbc");
+    }
+
+    // BCrypt is CPU bound, so it gets a small pool of its own sized to the cores, with admission control
+    @Bean(destroyMethod = "shutdown")
+    public HashingExecutor passwordHashingExecutor(@Value("${scheduler.password-hashing.threads:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}") int threads,
+                                                   @Value("${scheduler.password-hashing.queue-capacity:200}") int queueCapacity,
+                                                   @Value("${scheduler.password-hashing.deadline-ms:2000}") long deadlineMillis,
+                                                   @Value("${scheduler.password-hashing.initial-hash-estimate-ms:100}") long initialHashMillis) {
+        return new HashingExecutor(threads, queueCapacity, deadlineMillis, initialHashMillis);
+    }
+}
@@ -2,6 +2,7 @@ package com.greensphere.userservice.config;
 
 import com.greensphere.userservice.filters.JWTRequestFilter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -25,6 +26,10 @@ import static org.springframework.security.config.Customizer.withDefaults;
 public class SecurityConfiguration {
     private final JWTRequestFilter jwtRequestFilter;
 
+    // reloads, rebuilds and metrics under /internal are operator only
+    @Value("${internal.admin-authority:ADMIN}")
+    private String internalAdminAuthority;
+
     @Bean
     public AuthenticationManager authenticationManager(AuthenticationConfiguration authConfig) throws Exception {
         return authConfig.getAuthenticationManager();
@@ -38,6 +43,7 @@ public class SecurityConfiguration {
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/user/**").permitAll()
                         .requestMatchers("/transaction/**").hasAuthority("GOVERNMENT_USER")
+                        .requestMatchers("/internal/**").hasAuthority(internalAdminAuthority)
                         .anyRequest().authenticated()
                 )
                 .sessionManagement(sess -> sess.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
@@ -1,15 +1,53 @@
 package com.greensphere.userservice.config;
 
+import com.greensphere.userservice.utils.Bulkhead;
+import com.greensphere.userservice.utils.CircuitBreaker;
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
 
 @Configuration
 public class WebClientConfig {
+
     @Bean
-    public WebClient webClient() {
+    public WebClient webClient(@Value("${http.client.max-connections-per-host:50}") int maxConnections,
+                               @Value("${http.client.pending-acquire-max-count:100}") int pendingAcquireMaxCount,
+                               @Value("${http.client.pending-acquire-timeout-ms:2000}") long pendingAcquireTimeout,
+                               @Value("${http.client.max-idle-time-ms:30000}") long maxIdleTime,
+                               @Value("${http.client.connect-timeout-ms:2000}") int connectTimeout,
+                               @Value("${http.client.response-timeout-ms:5000}") long responseTimeout) {
+        // pool limits apply per remote host
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("outbound")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(Duration.ofMillis(pendingAcquireTimeout))
+                .maxIdleTime(Duration.ofMillis(maxIdleTime))
+                .build();
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeout)
+                .responseTimeout(Duration.ofMillis(responseTimeout));
         return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
                 .build();
     }
 
+    @Bean
+    public CircuitBreaker smsCircuitBreaker(@Value("${sms.circuit-breaker.failure-threshold:5}") int failureThreshold,
+                                            @Value("${sms.circuit-breaker.open-duration-ms:30000}") long openDuration) {
+        return new CircuitBreaker("sms-service", failureThreshold, openDuration);
+    }
+
+    @Bean
+    public Bulkhead smsBulkhead(@Value("${sms.bulkhead.max-concurrent-calls:20}") int maxConcurrentCalls,
+                                @Value("${sms.bulkhead.max-wait-ms:500}") long maxWait) {
+        return new Bulkhead(maxConcurrentCalls, maxWait);
+    }
+
 }
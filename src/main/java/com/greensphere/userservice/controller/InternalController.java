@@ -1,4 +1,144 @@
 package com.greensphere.userservice.controller;
 
+import com.greensphere.userservice.dto.response.DefaultResponse;
+import com.greensphere.userservice.enums.EndpointClass;
+import com.greensphere.userservice.enums.RateLimitedEndpoint;
+import com.greensphere.userservice.filters.EndpointBulkheadFilter;
+import com.greensphere.userservice.service.ParameterRegistry;
+import com.greensphere.userservice.service.RateLimiter;
+import com.greensphere.userservice.service.RegisteredEmailIndex;
+import com.greensphere.userservice.service.RoleAuthorityRegistry;
+import com.greensphere.userservice.service.TokenAuthenticationCache;
+import com.greensphere.userservice.utils.Bulkhead;
+import com.greensphere.userservice.utils.CircuitBreaker;
+import com.greensphere.userservice.utils.HashingExecutor;
+import com.greensphere.userservice.utils.LatencyHistogram;
+import com.greensphere.userservice.utils.ResponseCodeUtil;
+import com.greensphere.userservice.utils.ResponseUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@Slf4j
+@RequiredArgsConstructor
+@RequestMapping("/internal")
 public class InternalController {
+
+    private final ParameterRegistry parameterRegistry;
+    private final RoleAuthorityRegistry roleAuthorityRegistry;
+    private final HashingExecutor passwordHashingExecutor;
+    private final EndpointBulkheadFilter endpointBulkheadFilter;
+    private final RateLimiter rateLimiter;
+    private final RegisteredEmailIndex registeredEmailIndex;
+    private final TokenAuthenticationCache tokenAuthenticationCache;
+    private final CircuitBreaker smsCircuitBreaker;
+    private final Bulkhead smsBulkhead;
+
+    @PostMapping(path = "/parameters/refresh")
+    public ResponseEntity<DefaultResponse> refreshParameters() {
+        if (!parameterRegistry.refresh()) {
+            return ResponseEntity.internalServerError()
+                    .body(DefaultResponse.internalServerError(ResponseCodeUtil.INTERNAL_SERVER_ERROR_CODE, "Parameter refresh failed, previous parameters kept"));
+        }
+        return ResponseEntity.ok(DefaultResponse.success(ResponseUtil.SUCCESS, "Parameters refreshed"));
+    }
+
+    @GetMapping(path = "/password-hashing/metrics")
+    public ResponseEntity<DefaultResponse> passwordHashingMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("queue_depth", passwordHashingExecutor.getQueueDepth());
+        metrics.put("active", passwordHashingExecutor.getActiveCount());
+        metrics.put("completed", passwordHashingExecutor.getCompletedCount());
+        metrics.put("rejected", passwordHashingExecutor.getRejectedCount());
+        metrics.put("estimated_wait_ms", passwordHashingExecutor.getEstimatedWaitMillis());
+        metrics.put("hash_time_avg_ms", passwordHashingExecutor.getAverageHashMillis());
+        metrics.put("hash_time_mean_ms", passwordHashingExecutor.getMeanHashMillis());
+        metrics.put("hash_time_max_ms", passwordHashingExecutor.getMaxHashMillis());
+        return ResponseEntity.ok(DefaultResponse.success(ResponseUtil.SUCCESS, "Password hashing metrics", metrics));
+    }
+
+    @GetMapping(path = "/endpoint-classes/metrics")
+    public ResponseEntity<DefaultResponse> endpointClassMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            Bulkhead bulkhead = endpointBulkheadFilter.getBulkhead(endpointClass);
+            LatencyHistogram latency = endpointBulkheadFilter.getLatency(endpointClass);
+            Map<String, Object> classMetrics = new LinkedHashMap<>();
+            classMetrics.put("active", bulkhead.getActiveCalls());
+            classMetrics.put("rejected", bulkhead.getRejectedCount());
+            classMetrics.put("count", latency.getCount());
+            classMetrics.put("p50_ms", latency.getPercentileMillis(50));
+            classMetrics.put("p99_ms", latency.getPercentileMillis(99));
+            classMetrics.put("max_ms", latency.getMaxMillis());
+            metrics.put(endpointClass.name().toLowerCase(), classMetrics);
+        }
+        return ResponseEntity.ok(DefaultResponse.success(ResponseUtil.SUCCESS, "Endpoint class metrics", metrics));
+    }
+
+    @GetMapping(path = "/rate-limits/metrics")
+    public ResponseEntity<DefaultResponse> rateLimitMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("buckets", rateLimiter.size());
+        metrics.put("evictions", rateLimiter.getEvictionCount());
+        for (RateLimitedEndpoint endpoint : RateLimitedEndpoint.values()) {
+            Map<String, Object> endpointMetrics = new LinkedHashMap<>();
+            endpointMetrics.put("allowed", rateLimiter.getAllowedCount(endpoint));
+            endpointMetrics.put("rejected", rateLimiter.getRejectedCount(endpoint));
+            metrics.put(endpoint.getKey(), endpointMetrics);
+        }
+        return ResponseEntity.ok(DefaultResponse.success(ResponseUtil.SUCCESS, "Rate limit metrics", metrics));
+    }
+
+    @GetMapping(path = "/email-index/metrics")
+    public ResponseEntity<DefaultResponse> emailIndexMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("ready", registeredEmailIndex.isReady());
+        metrics.put("indexed", registeredEmailIndex.getIndexedCount());
+        metrics.put("skipped_lookups", registeredEmailIndex.getSkippedLookupCount());
+        return ResponseEntity.ok(DefaultResponse.success(ResponseUtil.SUCCESS, "Email index metrics", metrics));
+    }
+
+    @PostMapping(path = "/email-index/rebuild")
+    public ResponseEntity<DefaultResponse> rebuildEmailIndex() {
+        // single flight: a request while a rebuild is running does not start another full scan
+        String message = registeredEmailIndex.rebuildAsync() ? "Email index rebuild started" : "Email index rebuild already running";
+        return ResponseEntity.accepted().body(DefaultResponse.success(ResponseUtil.SUCCESS, message));
+    }
+
+    @GetMapping(path = "/token-cache/metrics")
+    public ResponseEntity<DefaultResponse> tokenCacheMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("size", tokenAuthenticationCache.size());
+        metrics.put("hits", tokenAuthenticationCache.getHitCount());
+        metrics.put("misses", tokenAuthenticationCache.getMissCount());
+        metrics.put("evictions", tokenAuthenticationCache.getEvictionCount());
+        return ResponseEntity.ok(DefaultResponse.success(ResponseUtil.SUCCESS, "Token cache metrics", metrics));
+    }
+
+    @GetMapping(path = "/sms-client/metrics")
+    public ResponseEntity<DefaultResponse> smsClientMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("circuit_state", smsCircuitBreaker.getState().name());
+        metrics.put("circuit_successes", smsCircuitBreaker.getSuccessCount());
+        metrics.put("circuit_failures", smsCircuitBreaker.getFailureCount());
+        metrics.put("circuit_rejected", smsCircuitBreaker.getRejectedCount());
+        metrics.put("bulkhead_active", smsBulkhead.getActiveCalls());
+        metrics.put("bulkhead_queued", smsBulkhead.getQueuedCalls());
+        metrics.put("bulkhead_rejected", smsBulkhead.getRejectedCount());
+        return ResponseEntity.ok(DefaultResponse.success(ResponseUtil.SUCCESS, "SMS client metrics", metrics));
+    }
+
+    @PostMapping(path = "/role-authorities/refresh")
+    public ResponseEntity<DefaultResponse> refreshRoleAuthorities() {
+        roleAuthorityRegistry.rebuild();
+        return ResponseEntity.ok(DefaultResponse.success(ResponseUtil.SUCCESS, "Role authorities refreshed"));
+    }
 }
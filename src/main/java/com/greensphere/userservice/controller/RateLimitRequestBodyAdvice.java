@@ -0,0 +1,109 @@
+package com.greensphere.userservice.controller;
+
+import com.greensphere.userservice.dto.request.userLogin.UserLoginRequest;
+import com.greensphere.userservice.dto.request.userRegister.UserRegisterRequestDto;
+import com.greensphere.userservice.dto.request.userRegister.UserRegisterVerifyRequest;
+import com.greensphere.userservice.enums.RateLimitedEndpoint;
+import com.greensphere.userservice.exceptions.RateLimitExceededException;
+import com.greensphere.userservice.service.RateLimiter;
+import com.greensphere.userservice.utils.PhoneNumberUtil;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+import java.lang.reflect.Type;
+import java.util.Locale;
+
+/**
+ * Rate limits register-init, register-verify and login once the request body is read and before
+ * the controller method is invoked, so a rejected request never reaches the service layer. The
+ * client IP is always limited; register-init is also limited per mobile number and email,
+ * register-verify per username and login per email.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@ControllerAdvice(assignableTypes = {UserController.class, ReactiveUserController.class})
+public class RateLimitRequestBodyAdvice extends RequestBodyAdviceAdapter {
+
+    private final RateLimiter rateLimiter;
+
+    // only enable behind a proxy that overwrites the header, otherwise clients can pick their own key
+    @Value("${rate-limit.trust-forwarded-for:false}")
+    private boolean trustForwardedFor;
+
+    @Override
+    public boolean supports(MethodParameter methodParameter, Type targetType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return targetType == UserRegisterRequestDto.class
+                || targetType == UserRegisterVerifyRequest.class
+                || targetType == UserLoginRequest.class;
+    }
+
+    @Override
+    public Object afterBodyRead(Object body, HttpInputMessage inputMessage, MethodParameter parameter, Type targetType,
+                                Class<? extends HttpMessageConverter<?>> converterType) {
+        String clientIp = clientIp(inputMessage);
+        RateLimitedEndpoint endpoint;
+        long retryAfter;
+        if (body instanceof UserRegisterRequestDto registerRequest) {
+            endpoint = RateLimitedEndpoint.REGISTER_INIT;
+            retryAfter = rateLimiter.tryAcquire(endpoint, clientIp,
+                    identity("mobile", normalizeMobile(registerRequest.getMobile())),
+                    identity("email", normalizeEmail(registerRequest.getEmail())));
+        } else if (body instanceof UserRegisterVerifyRequest verifyRequest) {
+            endpoint = RateLimitedEndpoint.REGISTER_VERIFY;
+            retryAfter = rateLimiter.tryAcquire(endpoint, clientIp, identity("username", verifyRequest.getUsername()));
+        } else if (body instanceof UserLoginRequest loginRequest) {
+            endpoint = RateLimitedEndpoint.LOGIN;
+            retryAfter = rateLimiter.tryAcquire(endpoint, clientIp, identity("email", normalizeEmail(loginRequest.getEmail())));
+        } else {
+            return body;
+        }
+        if (retryAfter > 0) {
+            log.warn("afterBodyRead-> {} rate limit reached for client: {}, retry after {}s", endpoint.getKey(), clientIp, retryAfter);
+            throw new RateLimitExceededException(endpoint.getKey() + " rate limit reached", retryAfter);
+        }
+        return body;
+    }
+
+    private String clientIp(HttpInputMessage inputMessage) {
+        if (!(inputMessage instanceof ServletServerHttpRequest servletRequest)) {
+            return "unknown";
+        }
+        HttpServletRequest request = servletRequest.getServletRequest();
+        if (trustForwardedFor) {
+            String forwardedFor = request.getHeader("X-Forwarded-For");
+            if (forwardedFor != null && !forwardedFor.isBlank()) {
+                int comma = forwardedFor.indexOf(',');
+                return (comma < 0 ? forwardedFor : forwardedFor.substring(0, comma)).trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    private static String identity(String type, String value) {
+        return value == null ? null : type + ":" + value;
+    }
+
+    private static String normalizeMobile(String mobile) {
+        if (mobile == null || mobile.isBlank()) {
+            return null;
+        }
+        mobile = mobile.trim();
+        // the same number with or without the country code shares a bucket
+        return mobile.length() < 2 ? mobile : PhoneNumberUtil.formatNumber(mobile);
+    }
+
+    private static String normalizeEmail(String email) {
+        if (email == null || email.isBlank()) {
+            return null;
+        }
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,68 @@
+package com.greensphere.userservice.controller;
+
+import com.greensphere.userservice.dto.request.TokenValidationRequest;
+import com.greensphere.userservice.dto.request.userLogin.UserLoginRequest;
+import com.greensphere.userservice.dto.response.BaseResponse;
+import com.greensphere.userservice.dto.response.DefaultResponse;
+import com.greensphere.userservice.service.UserService;
+import com.greensphere.userservice.utils.ResponseCodeUtil;
+import com.greensphere.userservice.utils.ResponseUtil;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Non-blocking variants of the token validation and login endpoints. The servlet thread is
+ * released as soon as the Mono is returned and the blocking lookups run on the bounded jdbc
+ * scheduler. The HttpServletRequest is only valid on the request thread, so anything needed from
+ * it is read before the work is handed off. BCrypt itself is admitted through the password
+ * hashing executor.
+ */
+@RestController
+@Slf4j
+@RequestMapping("/user/reactive")
+public class ReactiveUserController {
+
+    private final UserService userService;
+    private final Scheduler jdbcScheduler;
+
+    public ReactiveUserController(UserService userService,
+                                  @Qualifier("jdbcScheduler") Scheduler jdbcScheduler) {
+        this.userService = userService;
+        this.jdbcScheduler = jdbcScheduler;
+    }
+
+    @PostMapping(path = "/token-validation")
+    public Mono<ResponseEntity<DefaultResponse>> tokenValidation(@RequestBody TokenValidationRequest validationRequest, HttpServletRequest httpServletRequest) {
+        WebAuthenticationDetails authenticationDetails = new WebAuthenticationDetailsSource().buildDetails(httpServletRequest);
+        return Mono.fromCallable(() -> userService.tokenValidation(validationRequest.getToken(), authenticationDetails))
+                .subscribeOn(jdbcScheduler)
+                .map(this::toResponse);
+    }
+
+    @PostMapping(path = "/login")
+    public Mono<ResponseEntity<DefaultResponse>> login(@Valid @RequestBody UserLoginRequest loginRequest) {
+        return Mono.fromCallable(() -> userService.login(loginRequest))
+                .subscribeOn(jdbcScheduler)
+                .map(this::toResponse);
+    }
+
+    private ResponseEntity<DefaultResponse> toResponse(BaseResponse<?> response) {
+        if (response.getCode().equals(ResponseCodeUtil.SUCCESS_CODE)) {
+            return ResponseEntity.ok(DefaultResponse.success(ResponseUtil.SUCCESS, response.getMessage(), response.getData()));
+        } else if (response.getCode().equals(ResponseCodeUtil.INTERNAL_SERVER_ERROR_CODE)) {
+            return ResponseEntity.internalServerError()
+                    .body(DefaultResponse.internalServerError(ResponseCodeUtil.INTERNAL_SERVER_ERROR_CODE, response.getMessage()));
+        } else {
+            return ResponseEntity.badRequest()
+                    .body(DefaultResponse.error(ResponseUtil.FAILED, response.getMessage()));
+        }
+    }
+}
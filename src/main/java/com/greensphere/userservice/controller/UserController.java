@@ -1,30 +1,39 @@
 package com.greensphere.userservice.controller;
 
+import com.greensphere.userservice.dto.request.BatchTokenValidationRequest;
 import com.greensphere.userservice.dto.request.TokenValidationRequest;
 import com.greensphere.userservice.dto.request.logOutRequest.LogOutRequest;
 import com.greensphere.userservice.dto.request.UpdateUserDetailsRequest;
 import com.greensphere.userservice.dto.request.userLogin.UserLoginRequest;
 import com.greensphere.userservice.dto.request.userRegister.GovUserRegisterRequest;
+import com.greensphere.userservice.dto.request.userRegister.ResendOtpRequest;
 import com.greensphere.userservice.dto.request.userRegister.SetUpDetailsRequest;
 import com.greensphere.userservice.dto.request.userRegister.UserRegisterRequestDto;
 import com.greensphere.userservice.dto.request.userRegister.UserRegisterVerifyRequest;
 import com.greensphere.userservice.dto.response.BaseResponse;
 import com.greensphere.userservice.dto.response.DefaultResponse;
 import com.greensphere.userservice.dto.response.UpdateUserDetailsResponse;
+import com.greensphere.userservice.dto.response.tokenValidationResponse.BatchTokenValidationResponse;
 import com.greensphere.userservice.dto.response.tokenValidationResponse.UserAuthResponse;
 import com.greensphere.userservice.dto.response.userLoginResponse.UserLoginResponse;
 import com.greensphere.userservice.entity.AppUser;
 import com.greensphere.userservice.service.UserService;
+import com.greensphere.userservice.utils.JwtKeyRing;
 import com.greensphere.userservice.utils.ResponseCodeUtil;
 import com.greensphere.userservice.utils.ResponseUtil;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @Slf4j
@@ -33,12 +42,17 @@ import java.util.HashMap;
 public class UserController {
 
     private final UserService userService;
+    private final JwtKeyRing jwtKeyRing;
 
     @PostMapping(value = "/register-init")
     public ResponseEntity<DefaultResponse> registerInit(@Valid @RequestBody UserRegisterRequestDto registerInitRequest) {
         BaseResponse<HashMap<String, Object>> response = userService.registerInit(registerInitRequest);
         if (response.getCode().equals(ResponseCodeUtil.SUCCESS_CODE)) {
             return ResponseEntity.ok(DefaultResponse.success(ResponseUtil.SUCCESS, response.getMessage(), response.getData()));
+        } else if (response.getCode().equals(ResponseCodeUtil.OTP_RESEND_THROTTLED_ERROR_CODE)) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(response.getData().get("retry_after")))
+                    .body(new DefaultResponse(ResponseCodeUtil.OTP_RESEND_THROTTLED_ERROR_CODE, ResponseUtil.FAILED, response.getMessage(), response.getData()));
         } else if (response.getCode().equals(ResponseCodeUtil.INTERNAL_SERVER_ERROR_CODE)) {
             return ResponseEntity.internalServerError()
                     .body(DefaultResponse.internalServerError(ResponseCodeUtil.INTERNAL_SERVER_ERROR_CODE, response.getMessage()));
@@ -62,6 +76,24 @@ public class UserController {
         }
     }
 
+    @PostMapping(value = "/resend-otp")
+    public ResponseEntity<DefaultResponse> resendOtp(@Valid @RequestBody ResendOtpRequest resendOtpRequest) {
+        BaseResponse<HashMap<String, Object>> response = userService.resendOtp(resendOtpRequest);
+        if (response.getCode().equals(ResponseCodeUtil.SUCCESS_CODE)) {
+            return ResponseEntity.ok(DefaultResponse.success(ResponseUtil.SUCCESS, response.getMessage(), response.getData()));
+        } else if (response.getCode().equals(ResponseCodeUtil.OTP_RESEND_THROTTLED_ERROR_CODE)) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(response.getData().get("retry_after")))
+                    .body(new DefaultResponse(ResponseCodeUtil.OTP_RESEND_THROTTLED_ERROR_CODE, ResponseUtil.FAILED, response.getMessage(), response.getData()));
+        } else if (response.getCode().equals(ResponseCodeUtil.INTERNAL_SERVER_ERROR_CODE)) {
+            return ResponseEntity.internalServerError()
+                    .body(DefaultResponse.internalServerError(ResponseCodeUtil.INTERNAL_SERVER_ERROR_CODE, response.getMessage()));
+        } else {
+            return ResponseEntity.badRequest()
+                    .body(DefaultResponse.error(ResponseUtil.FAILED, response.getMessage()));
+        }
+    }
+
     @PostMapping(path = "/app-user/register")   
 //    @PreAuthorize("hasAuthority('APP_USER')")
     public ResponseEntity<DefaultResponse> appUserSetUpDetails(@Valid @RequestBody SetUpDetailsRequest setUpDetailsRequest) {
@@ -134,6 +166,29 @@ public class UserController {
         }
     }
 
+    // Gateway fan-in: one round trip validates many tokens, verdicts are returned in request order
+    @PostMapping(path = "/token-validation/batch")
+    public ResponseEntity<DefaultResponse> batchTokenValidation(@RequestBody BatchTokenValidationRequest validationRequest) {
+        BaseResponse<BatchTokenValidationResponse> response = userService.batchTokenValidation(validationRequest.getTokens());
+        if (response.getCode().equals(ResponseCodeUtil.SUCCESS_CODE)) {
+            return ResponseEntity.ok(DefaultResponse.success(ResponseUtil.SUCCESS, response.getMessage(), response.getData()));
+        } else if (response.getCode().equals(ResponseCodeUtil.INTERNAL_SERVER_ERROR_CODE)) {
+            return ResponseEntity.internalServerError()
+                    .body(DefaultResponse.internalServerError(ResponseCodeUtil.INTERNAL_SERVER_ERROR_CODE, response.getMessage()));
+        } else {
+            return ResponseEntity.badRequest()
+                    .body(DefaultResponse.error(ResponseUtil.FAILED, response.getMessage()));
+        }
+    }
+
+    // JWKS document so other services can verify ES256 tokens locally instead of calling /token-validation
+    @GetMapping(path = "/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> jwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(1, TimeUnit.HOURS).cachePublic())
+                .body(Map.of("keys", jwtKeyRing.getPublicJwks()));
+    }
+
     @PutMapping(path = "/settings/update-user-details")
     public ResponseEntity<DefaultResponse> updateUserDetails(
             @RequestBody UpdateUserDetailsRequest updateUserDetailsRequest,
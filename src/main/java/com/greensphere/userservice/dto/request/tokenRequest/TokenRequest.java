@@ -5,13 +5,17 @@ import lombok.Getter;
 import lombok.Setter;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Getter
 @Setter
 @Builder
 public class TokenRequest {
     private String username;
+    private String email;
     private String role;
+    private List<String> authorities;
+    private int stateVersion;
     @Builder.Default
     LocalDateTime now = LocalDateTime.now();
 }
@@ -0,0 +1,18 @@
+package com.greensphere.userservice.dto.request.userRegister;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.greensphere.userservice.utils.AppConstants;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class ResendOtpRequest {
+
+    @NotEmpty(message = AppConstants.USER_ID_REQUIRED)
+    private String username;
+    // previous challenge, invalidated once the new code is sent
+    @JsonProperty("challenge_id")
+    private String challengeId;
+}
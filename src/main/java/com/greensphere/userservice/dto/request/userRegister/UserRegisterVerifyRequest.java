@@ -1,5 +1,6 @@
 package com.greensphere.userservice.dto.request.userRegister;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.constraints.NotEmpty;
 import lombok.Getter;
 import lombok.Setter;
@@ -9,6 +10,9 @@ import lombok.Setter;
 public class UserRegisterVerifyRequest {
 
     private String username;
+    @JsonProperty("challenge_id")
+    @NotEmpty(message = "challenge_id should not be empty")
+    private String challengeId;
     @NotEmpty(message = "otp should not be empty")
     private String otp;
 }
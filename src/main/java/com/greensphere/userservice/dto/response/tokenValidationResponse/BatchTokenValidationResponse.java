@@ -0,0 +1,14 @@
+package com.greensphere.userservice.dto.response.tokenValidationResponse;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchTokenValidationResponse {
+    private List<TokenVerdict> results;
+}
@@ -0,0 +1,23 @@
+package com.greensphere.userservice.dto.response.tokenValidationResponse;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TokenVerdict {
+    private int index;
+    private boolean valid;
+    private String code;
+    private String message;
+    @JsonProperty("app_user")
+    private UserResponse appUser;
+    private List<String> authorities;
+}
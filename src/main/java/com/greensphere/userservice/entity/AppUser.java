@@ -2,12 +2,15 @@ package com.greensphere.userservice.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.UUID;
 
 @Entity
@@ -16,11 +19,23 @@ import java.util.UUID;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@DynamicUpdate
+@NamedEntityGraph(
+        name = AppUser.ROLES_AND_PERMISSIONS_GRAPH,
+        attributeNodes = @NamedAttributeNode(value = "roles", subgraph = "role-permissions"),
+        subgraphs = @NamedSubgraph(name = "role-permissions", attributeNodes = @NamedAttributeNode("permissions")))
 public class AppUser extends BaseEntity {
+    public static final String ROLES_AND_PERMISSIONS_GRAPH = "AppUser.rolesAndPermissions";
+
+
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_sequence")
     @SequenceGenerator(name = "user_sequence", sequenceName = "user_sequence", allocationSize = 1)
     private Long id;
+    // optimistic lock, concurrent writes to the same user fail instead of overwriting each other
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    private long version;
     private Long govId;
     @Builder.Default
     private String username = UUID.randomUUID().toString();
@@ -39,32 +54,29 @@ public class AppUser extends BaseEntity {
     private LocalDateTime PasswordUpdatedAt;
     @Column(columnDefinition = "int default 0")
     private int loginAttempts;
+    // embedded in tokens as "sv"; bumped only when a status change must end existing sessions (lockout),
+    // not on the registration steps, which hand out tokens carrying the current version
+    @Column(columnDefinition = "int default 0")
+    private int stateVersion;
     private String status;
     private String postalCode;
     private LocalDateTime registeredAt;
+    // lets RegisteredEmailIndex pick up users created or changed on other nodes
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
 
-    private String otp;
-    private String otpStatus;
-    @Column(columnDefinition = "int default 0")
-    private int verifyAttempts;
-    private LocalDateTime otpSentAt;
-    @Column(columnDefinition = "int default 0")
-    private int otpAttempts;
-
-    @ManyToMany(fetch = FetchType.EAGER)
+    // a Set rather than a bag: the roles-and-permissions graph joins both collections, and a bag
+    // would hold each role once per permission row
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
             name = "users_roles",
             joinColumns = @JoinColumn(
                     name = "user_id", referencedColumnName = "id"),
             inverseJoinColumns = @JoinColumn(
                     name = "role_id", referencedColumnName = "id"))
-    private Collection<Role> roles = new ArrayList<>();
+    private Set<Role> roles = new HashSet<>();
 
     @Transient
     private Collection<GrantedAuthority> grantedAuthoritiesList = new ArrayList<>();
 
-    public void setPassword(String password) {
-        this.password = new BCryptPasswordEncoder().encode(password);
-    }
-
 }
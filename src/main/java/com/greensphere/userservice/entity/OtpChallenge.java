@@ -0,0 +1,33 @@
+package com.greensphere.userservice.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(indexes = @Index(name = "idx_otp_challenge_expires_at", columnList = "expires_at"))
+public class OtpChallenge {
+
+    @Id
+    @Column(name = "challenge_id", length = 36)
+    private String challengeId;
+    private String username;
+    // SHA-256 of challengeId and the code, the code itself is never stored
+    @Column(name = "otp_digest", length = 32)
+    private byte[] otpDigest;
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+    @Column(columnDefinition = "int default 0")
+    private int attempts;
+    private int maxAttempts;
+
+    public boolean isExpired(LocalDateTime now) {
+        return !expiresAt.isAfter(now);
+    }
+}
@@ -7,6 +7,8 @@ import lombok.*;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
 
 @Entity
 @Getter
@@ -28,7 +30,8 @@ public class Role {
     @JsonIgnore
     private Collection<AppUser> appUser = new ArrayList<>();
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    // a Set rather than a bag so it can be fetched together with AppUser.roles in one query
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
             name = "roles_permissions",
             joinColumns = @JoinColumn(
@@ -38,5 +41,5 @@ public class Role {
                     name = "permission_id", referencedColumnName = "id"
             )
     )
-    private Collection<Permission> permissions = new ArrayList<>();
+    private Set<Permission> permissions = new HashSet<>();
 }
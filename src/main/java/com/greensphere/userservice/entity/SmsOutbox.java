@@ -0,0 +1,33 @@
+package com.greensphere.userservice.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(indexes = @Index(name = "idx_sms_outbox_status_next_attempt", columnList = "status, next_attempt_at"))
+public class SmsOutbox extends BaseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sms_outbox_sequence")
+    @SequenceGenerator(name = "sms_outbox_sequence", sequenceName = "sms_outbox_sequence", allocationSize = 1)
+    private Long id;
+    private String mobile;
+    @Column(length = 1000)
+    private String message;
+    // set for OTP messages to trace which user the code was sent to
+    private String username;
+    private String status;
+    @Column(columnDefinition = "int default 0")
+    private int attempts;
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+    private LocalDateTime sentAt;
+    private String lastError;
+}
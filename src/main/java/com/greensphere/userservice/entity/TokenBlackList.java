@@ -9,6 +9,7 @@ package com.greensphere.userservice.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDateTime;
 
@@ -18,13 +19,20 @@ import java.time.LocalDateTime;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@Table(indexes = @Index(name = "idx_token_black_list_digest", columnList = "token_digest_hex"))
 public class TokenBlackList {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "token_black_list_sequence")
     @SequenceGenerator(name = "token_black_list_sequence", sequenceName = "token_black_list_sequence", allocationSize = 1)
     private Long id;
+    // hex SHA-256 of the revoked JWT; the full token text is only kept on rows created before digests were introduced
+    @Column(name = "token_digest_hex", length = 64)
+    private String tokenDigest;
     @Column(length = 1000)
     private String token;
     private LocalDateTime expiredTime;
+    // lets TokenRevocationService load only rows written since its last reload
+    @CreationTimestamp
+    private LocalDateTime createdAt;
 }
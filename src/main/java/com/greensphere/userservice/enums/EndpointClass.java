@@ -0,0 +1,24 @@
+package com.greensphere.userservice.enums;
+
+import java.util.Set;
+
+public enum EndpointClass {
+    VALIDATION(Set.of("/user/token-validation", "/user/token-validation/batch", "/user/reactive/token-validation")),
+    AUTHENTICATION(Set.of("/user/login", "/user/logout", "/user/reactive/login")),
+    REGISTRATION(Set.of("/user/register-init", "/user/register-verify", "/user/resend-otp", "/user/app-user/register", "/user/gov-user/register"));
+
+    private final Set<String> paths;
+
+    EndpointClass(Set<String> paths) {
+        this.paths = paths;
+    }
+
+    public static EndpointClass of(String path) {
+        for (EndpointClass endpointClass : values()) {
+            if (endpointClass.paths.contains(path)) {
+                return endpointClass;
+            }
+        }
+        return null;
+    }
+}
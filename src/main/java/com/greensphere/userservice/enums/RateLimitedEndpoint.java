@@ -0,0 +1,17 @@
+package com.greensphere.userservice.enums;
+
+public enum RateLimitedEndpoint {
+    REGISTER_INIT("register-init"),
+    REGISTER_VERIFY("register-verify"),
+    LOGIN("login");
+
+    private final String key;
+
+    RateLimitedEndpoint(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+}
@@ -5,6 +5,7 @@ public enum Status {
     ACTIVE,
     DISABLED,
     PENDING,
+    SENDING,
     SENT,
     FAILED,
     VERIFIED,
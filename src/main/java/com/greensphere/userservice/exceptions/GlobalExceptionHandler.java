@@ -0,0 +1,33 @@
+package com.greensphere.userservice.exceptions;
+
+import com.greensphere.userservice.dto.response.DefaultResponse;
+import com.greensphere.userservice.utils.ResponseCodeUtil;
+import com.greensphere.userservice.utils.ResponseUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+@Slf4j
+@RestControllerAdvice
+public class GlobalExceptionHandler {
+
+    @ExceptionHandler(HashingRejectedException.class)
+    public ResponseEntity<DefaultResponse> handleHashingRejected(HashingRejectedException e) {
+        log.warn("handleHashingRejected-> {}, retry after {}s", e.getMessage(), e.getRetryAfterSeconds());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(new DefaultResponse(ResponseCodeUtil.SERVICE_UNAVAILABLE_CODE, ResponseUtil.FAILED,
+                        "Service is busy, please try again shortly."));
+    }
+
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<DefaultResponse> handleRateLimitExceeded(RateLimitExceededException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(new DefaultResponse(ResponseCodeUtil.RATE_LIMITED_ERROR_CODE, ResponseUtil.FAILED,
+                        "Too many requests, please try again later."));
+    }
+}
@@ -0,0 +1,149 @@
+package com.greensphere.userservice.filters;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.greensphere.userservice.dto.response.DefaultResponse;
+import com.greensphere.userservice.enums.EndpointClass;
+import com.greensphere.userservice.utils.Bulkhead;
+import com.greensphere.userservice.utils.LatencyHistogram;
+import com.greensphere.userservice.utils.ResponseCodeUtil;
+import com.greensphere.userservice.utils.ResponseUtil;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Gives token validation, authentication and registration their own concurrency limit on the
+ * shared servlet pool, so a surge in one class is rejected with 503 instead of taking the threads
+ * the others need. A full class is rejected at once, so the servlet thread never waits for a
+ * permit. The limits together stay below the container's thread count, which leaves headroom for
+ * validation. Each class also records its own latency histogram.
+ */
+@Component
+@Slf4j
+@Order(1)
+public class EndpointBulkheadFilter extends OncePerRequestFilter {
+
+    private final Map<EndpointClass, Bulkhead> bulkheads = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, LatencyHistogram> latencies = new EnumMap<>(EndpointClass.class);
+    private final ObjectMapper objectMapper;
+
+    public EndpointBulkheadFilter(ObjectMapper objectMapper,
+                                  @Value("${endpoint.bulkhead.validation.max-concurrent-calls:100}") int validationCalls,
+                                  @Value("${endpoint.bulkhead.authentication.max-concurrent-calls:50}") int authenticationCalls,
+                                  @Value("${endpoint.bulkhead.registration.max-concurrent-calls:20}") int registrationCalls) {
+        this.objectMapper = objectMapper;
+        bulkheads.put(EndpointClass.VALIDATION, new Bulkhead(validationCalls, 0));
+        bulkheads.put(EndpointClass.AUTHENTICATION, new Bulkhead(authenticationCalls, 0));
+        bulkheads.put(EndpointClass.REGISTRATION, new Bulkhead(registrationCalls, 0));
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            latencies.put(endpointClass, new LatencyHistogram());
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        EndpointClass endpointClass = EndpointClass.of(pathOf(request));
+        if (endpointClass == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        Bulkhead bulkhead = bulkheads.get(endpointClass);
+        if (!bulkhead.tryEnter()) {
+            log.warn("EndpointBulkheadFilter-> {} limit reached, rejecting {}", endpointClass, request.getRequestURI());
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType("application/json");
+            response.setCharacterEncoding("UTF-8");
+            response.getWriter().print(objectMapper.writeValueAsString(
+                    new DefaultResponse(ResponseCodeUtil.SERVICE_UNAVAILABLE_CODE, ResponseUtil.FAILED, "Service is busy, please try again shortly.")));
+            return;
+        }
+
+        Completion completion = new Completion(bulkhead, latencies.get(endpointClass), System.nanoTime());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            // async endpoints return before the work is done; hold the permit until the response completes
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(completion);
+            } else {
+                completion.complete();
+            }
+        }
+    }
+
+    // the servlet path is decoded and stripped of ;jsessionid style parameters by the container,
+    // the raw URI is not, so a variant spelling of a path cannot slip past its bulkhead
+    private static String pathOf(HttpServletRequest request) {
+        String path = request.getPathInfo() == null ? request.getServletPath() : request.getServletPath() + request.getPathInfo();
+        int end = path.length();
+        while (end > 1 && path.charAt(end - 1) == '/') {
+            end--;
+        }
+        return path.substring(0, end);
+    }
+
+    public Bulkhead getBulkhead(EndpointClass endpointClass) {
+        return bulkheads.get(endpointClass);
+    }
+
+    public LatencyHistogram getLatency(EndpointClass endpointClass) {
+        return latencies.get(endpointClass);
+    }
+
+    private static class Completion implements AsyncListener {
+        private final Bulkhead bulkhead;
+        private final LatencyHistogram latency;
+        private final long start;
+        // the container calls onComplete after onTimeout or onError as well
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Completion(Bulkhead bulkhead, LatencyHistogram latency, long start) {
+            this.bulkhead = bulkhead;
+            this.latency = latency;
+            this.start = start;
+        }
+
+        private void complete() {
+            if (released.compareAndSet(false, true)) {
+                latency.record(System.nanoTime() - start);
+                bulkhead.exit();
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            complete();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            complete();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            complete();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -1,13 +1,16 @@
 package com.greensphere.userservice.filters;
 
-import com.auth0.jwt.JWT;
-import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.*;
+import com.auth0.jwt.interfaces.DecodedJWT;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.greensphere.userservice.dto.response.DefaultResponse;
 import com.greensphere.userservice.entity.AppUser;
+import com.greensphere.userservice.enums.Status;
 import com.greensphere.userservice.repository.UserRepository;
-import com.greensphere.userservice.service.AuthUserDetailsService;
+import com.greensphere.userservice.service.RoleAuthorityRegistry;
+import com.greensphere.userservice.service.TokenAuthenticationCache;
+import com.greensphere.userservice.service.TokenRevocationService;
+import com.greensphere.userservice.utils.JwtKeyRing;
 import com.greensphere.userservice.utils.ResponseCodeUtil;
 import com.greensphere.userservice.utils.ResponseUtil;
 import jakarta.servlet.FilterChain;
@@ -19,14 +22,18 @@ import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.annotation.Order;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.time.Instant;
+import java.util.List;
 import java.util.Objects;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -37,11 +44,15 @@ import java.util.regex.Pattern;
 @Order(3)
 public class JWTRequestFilter extends OncePerRequestFilter {
     private static final String MDC_UID_KEY = "uid";
-    private final AuthUserDetailsService userService;
     private final UserRepository appUserRepository;
+    private final TokenAuthenticationCache tokenAuthenticationCache;
+    private final JwtKeyRing jwtKeyRing;
+    private final TokenRevocationService tokenRevocationService;
+    private final RoleAuthorityRegistry roleAuthorityRegistry;
 
-    @Value("${jwt.secret}")
-    private String secretKey;
+    // authorize from verified token claims only, without loading the user in the filter
+    @Value("${jwt.stateless-filter.enabled:false}")
+    private boolean statelessFilter;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws IOException {
@@ -58,13 +69,26 @@ public class JWTRequestFilter extends OncePerRequestFilter {
                 return;
             }
 
-            UsernamePasswordAuthenticationToken authentication = getAuthentication(header, request);
+            HttpServletRequest chainRequest = request;
+            UsernamePasswordAuthenticationToken authentication = null;
+            TokenAuthenticationCache.CachedAuthentication principal = statelessFilter ? getStatelessPrincipal(header) : null;
+            if (principal == null) {
+                principal = getAuthenticatedUser(header, request);
+                if (principal != null && Status.DISABLED.name().equals(principal.getStatus())) {
+                    throw new JWTVerificationException("User is disabled");
+                }
+            }
+            if (principal != null) {
+                authentication = buildAuthentication(principal, request);
+                // the "user" attribute is loaded per request, only when a controller asks for it
+                chainRequest = new LazyUserRequestWrapper(request, principal.getUsername(), appUserRepository);
+            }
             if (Objects.isNull(authentication)) {
                 log.info("JWTRequestFilter:[doFilterInternal] -> Not authenticated. Public request.");
             } else {
                 SecurityContextHolder.getContext().setAuthentication(authentication);
             }
-            filterChain.doFilter(request, response);
+            filterChain.doFilter(chainRequest, response);
         } catch (AlgorithmMismatchException e) {
             log.error("JWTRequestFilter:[doFilterInternal] -> Exception: JWT algorithm mismatched");
             DefaultResponse defaultResponse = DefaultResponse.builder().code(ResponseCodeUtil.JWT_TOKEN_VALIDATE_ERROR_CODE).title(ResponseUtil.FAILED).message(ResponseUtil.INVALID_CREDENTIAL).build();
@@ -96,27 +120,81 @@ public class JWTRequestFilter extends OncePerRequestFilter {
     }
 
     // Reads the JWT from the Authorization header, and then uses JWT to validate the token
-    public UsernamePasswordAuthenticationToken getAuthentication(String token, HttpServletRequest request) {
-        if (token != null) {
-            // parse the token.
-            String username = JWT.require(Algorithm.HMAC512(secretKey.getBytes())).build().verify(token.replace("Bearer ", "")).getSubject();
-
-            if (username != null) {
-                UserDetails userDetails = userService.loadUserByUsername(username);
-                UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+    public TokenAuthenticationCache.CachedAuthentication getAuthenticatedUser(String token, HttpServletRequest request) {
+        if (token == null) {
+            return null;
+        }
+        String jwt = token.replace("Bearer ", "");
+        TokenAuthenticationCache.CachedAuthentication cached = tokenAuthenticationCache.get(jwt);
+        if (cached != null) {
+            // the entry carries the token's state version; a lockout on another node is picked up by the sync
+            if (tokenRevocationService.isStale(cached.getUsername(), cached.getStateVersion())) {
+                tokenAuthenticationCache.invalidateToken(jwt);
+                throw new JWTVerificationException("JWT was issued before the user's state changed");
+            }
+            return cached;
+        }
 
-                usernamePasswordAuthenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                AppUser appUser = appUserRepository.findAppUserByUsername(username);
-                if (appUser != null) {
+        // parse the token.
+        DecodedJWT decodedJWT = jwtKeyRing.verify(jwt);
+        String username = decodedJWT.getSubject();
+        if (username == null) {
+            return null;
+        }
+        AppUser appUser = appUserRepository.findWithRolesByUsername(username);
+        if (appUser == null) {
+            throw new UsernameNotFoundException("User " + username + " was not found in the database");
+        }
+        Integer stateVersion = decodedJWT.getClaim("sv").asInt();
+        if ((stateVersion == null ? 0 : stateVersion) < appUser.getStateVersion()) {
+            throw new JWTVerificationException("JWT was issued before the user's state changed");
+        }
+        TokenAuthenticationCache.CachedAuthentication principal = new TokenAuthenticationCache.CachedAuthentication(
+                appUser.getUsername(), appUser.getEmail(), appUser.getStatus(), appUser.getStateVersion(),
+                roleAuthorityRegistry.getAuthorities(appUser.getRoles()),
+                decodedJWT.getExpiresAt() == null ? 0 : decodedJWT.getExpiresAt().getTime());
+        tokenAuthenticationCache.put(jwt, principal);
+        // this request's own copy, so the attribute does not need a second query
+        request.setAttribute(LazyUserRequestWrapper.USER_ATTRIBUTE, appUser);
+        return principal;
+    }
 
-                    request.setAttribute("user", appUser);
-                    MDC.put(MDC_UID_KEY, appUser.getUsername());
-                }
-                return usernamePasswordAuthenticationToken;
-            }
+    // Builds the principal from the token's claims; tokens issued without authorities or email fall back to getAuthenticatedUser
+    private TokenAuthenticationCache.CachedAuthentication getStatelessPrincipal(String token) {
+        String jwt = token.replace("Bearer ", "");
+        DecodedJWT decodedJWT = jwtKeyRing.verify(jwt);
+        String username = decodedJWT.getSubject();
+        String email = decodedJWT.getClaim("email").asString();
+        List<String> authorityNames = decodedJWT.getClaim("authorities").asList(String.class);
+        if (username == null || email == null || authorityNames == null) {
             return null;
         }
-        return null;
+        if (tokenRevocationService.isRevoked(jwt)) {
+            throw new JWTVerificationException("JWT has been revoked");
+        }
+        Integer stateVersion = decodedJWT.getClaim("sv").asInt();
+        int tokenStateVersion = stateVersion == null ? 0 : stateVersion;
+        if (tokenRevocationService.isStale(username, tokenStateVersion)) {
+            throw new JWTVerificationException("JWT was issued before the user's state changed");
+        }
+
+        List<GrantedAuthority> authorities = authorityNames.stream()
+                .map(name -> (GrantedAuthority) new SimpleGrantedAuthority(name))
+                .toList();
+        // status is not a claim, a lockout reaches this node through the state version instead
+        return new TokenAuthenticationCache.CachedAuthentication(username, email, null, tokenStateVersion, authorities,
+                decodedJWT.getExpiresAt() == null ? 0 : decodedJWT.getExpiresAt().getTime());
+    }
+
+    private UsernamePasswordAuthenticationToken buildAuthentication(TokenAuthenticationCache.CachedAuthentication principal, HttpServletRequest request) {
+        // principal name stays the email, as AuthUserDetailsService builds it, in both filter modes
+        String name = principal.getEmail() != null ? principal.getEmail() : principal.getUsername();
+        User userDetails = new User(name, "", principal.getAuthorities());
+        UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+
+        usernamePasswordAuthenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        MDC.put(MDC_UID_KEY, principal.getUsername());
+        return usernamePasswordAuthenticationToken;
     }
 
     private boolean skipRefreshToken(HttpServletRequest httpServletRequest) {
@@ -0,0 +1,37 @@
+package com.greensphere.userservice.filters;
+
+import com.greensphere.userservice.repository.UserRepository;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+
+/**
+ * Resolves the "user" request attribute on first access, so requests authorized from token
+ * claims only load the AppUser when a controller actually asks for @RequestAttribute("user").
+ */
+public class LazyUserRequestWrapper extends HttpServletRequestWrapper {
+
+    public static final String USER_ATTRIBUTE = "user";
+
+    private final String username;
+    private final UserRepository userRepository;
+    private boolean loaded;
+
+    public LazyUserRequestWrapper(HttpServletRequest request, String username, UserRepository userRepository) {
+        super(request);
+        this.username = username;
+        this.userRepository = userRepository;
+    }
+
+    @Override
+    public Object getAttribute(String name) {
+        Object value = super.getAttribute(name);
+        if (value == null && !loaded && USER_ATTRIBUTE.equals(name)) {
+            loaded = true;
+            value = userRepository.findAppUserByUsername(username);
+            if (value != null) {
+                super.setAttribute(USER_ATTRIBUTE, value);
+            }
+        }
+        return value;
+    }
+}
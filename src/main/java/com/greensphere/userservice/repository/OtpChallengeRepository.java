@@ -0,0 +1,30 @@
+package com.greensphere.userservice.repository;
+
+import com.greensphere.userservice.entity.OtpChallenge;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface OtpChallengeRepository extends JpaRepository<OtpChallenge, String> {
+
+    @Modifying
+    @Transactional
+    @Query("update OtpChallenge c set c.attempts = c.attempts + 1 where c.challengeId = :challengeId and c.attempts < c.maxAttempts")
+    int incrementAttempts(@Param("challengeId") String challengeId);
+
+    @Modifying
+    @Transactional
+    @Query("delete from OtpChallenge c where c.challengeId = :challengeId")
+    int deleteByChallengeId(@Param("challengeId") String challengeId);
+
+    @Modifying
+    @Transactional
+    @Query("delete from OtpChallenge c where c.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -1,12 +1,22 @@
 package com.greensphere.userservice.repository;
 
 import com.greensphere.userservice.entity.Role;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface RoleRepository extends JpaRepository<Role, Long> {
 
     Role findRoleById(long id);
+
+    @EntityGraph(attributePaths = "permissions")
     Role findRoleByName(String name);
+
+    @EntityGraph(attributePaths = "permissions")
+    @Query("select r from Role r")
+    List<Role> findAllWithPermissions();
 }
@@ -0,0 +1,26 @@
+package com.greensphere.userservice.repository;
+
+import com.greensphere.userservice.entity.SmsOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SmsOutboxRepository extends JpaRepository<SmsOutbox, Long> {
+
+    // Locks a batch of due messages until the caller's transaction ends. SKIP LOCKED lets several
+    // nodes drain the outbox concurrently, and a SENDING row whose lease ran out is picked up again.
+    @Query(value = "SELECT id FROM sms_outbox WHERE status IN ('PENDING', 'SENDING') AND next_attempt_at <= :now " +
+            "ORDER BY id LIMIT :batchSize FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockDueIds(@Param("now") LocalDateTime now, @Param("batchSize") int batchSize);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update SmsOutbox s set s.status = 'SENDING', s.nextAttemptAt = :leaseUntil where s.id in :ids")
+    int lease(@Param("ids") Collection<Long> ids, @Param("leaseUntil") LocalDateTime leaseUntil);
+}
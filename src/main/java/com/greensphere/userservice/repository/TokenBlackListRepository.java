@@ -2,10 +2,35 @@ package com.greensphere.userservice.repository;
 
 import com.greensphere.userservice.entity.TokenBlackList;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 @Repository
 public interface TokenBlackListRepository extends JpaRepository<TokenBlackList, Long> {
 
-    boolean existsByToken(String token);
+    boolean existsByTokenDigest(String tokenDigest);
+
+    List<TokenBlackList> findAllByExpiredTimeAfter(LocalDateTime time);
+
+    List<TokenBlackList> findAllByCreatedAtAfterAndExpiredTimeAfter(LocalDateTime createdAfter, LocalDateTime time);
+
+    // Legacy rows still holding the token text; expired ones are left to the purge job
+    List<TokenBlackList> findTop500ByTokenDigestIsNullAndExpiredTimeAfter(LocalDateTime time);
+
+    @Query("select t.tokenDigest from TokenBlackList t where t.tokenDigest in :digests and t.expiredTime > :now")
+    List<String> findRevokedDigests(@Param("digests") Collection<String> digests, @Param("now") LocalDateTime now);
+
+    // PostgreSQL has no DELETE ... LIMIT, so the batch is bounded through the id sub-select
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM token_black_list WHERE id IN " +
+            "(SELECT id FROM token_black_list WHERE expired_time < :now LIMIT :batchSize)", nativeQuery = true)
+    int deleteExpiredBatch(@Param("now") LocalDateTime now, @Param("batchSize") int batchSize);
 }
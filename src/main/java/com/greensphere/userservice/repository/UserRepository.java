@@ -1,23 +1,78 @@
 package com.greensphere.userservice.repository;
 
 import com.greensphere.userservice.entity.AppUser;
+import org.springframework.data.jpa.repository.EntityGraph;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 @EnableJpaRepositories
 public interface UserRepository extends JpaRepository<AppUser, Long> {
 
+    // Lean lookup: scalar columns only, roles stay lazy
     AppUser findAppUserByUsername(String username);
 
+    // Full lookups: user, roles and permissions in a single round trip
+    @EntityGraph(AppUser.ROLES_AND_PERMISSIONS_GRAPH)
+    AppUser findWithRolesByUsername(String username);
+
+    @EntityGraph(AppUser.ROLES_AND_PERMISSIONS_GRAPH)
     AppUser findAppUserByEmail(String email);
 
+    @EntityGraph(AppUser.ROLES_AND_PERMISSIONS_GRAPH)
     List<AppUser> findAppUsersByNicOrMobileOrEmail(String nic, String mobile, String email);
 
+    // Batch lookup for token introspection; roles are enough to resolve authorities from the registry
+    @EntityGraph(attributePaths = "roles")
+    List<AppUser> findAppUsersByUsernameIn(Collection<String> usernames);
+
     boolean existsByEmailAndAndMobile(String email, String mobile);
+
+    // Email only projections for RegisteredEmailIndex
+    @Query("select u.email from AppUser u where u.email is not null")
+    List<String> findAllEmails();
+
+    @Query("select u.email from AppUser u where u.email is not null and u.updatedAt >= :since")
+    List<String> findEmailsUpdatedSince(@Param("since") LocalDateTime since);
+
+    // State versions of users changed since :since, for TokenRevocationService
+    @Query("select u.username as username, u.stateVersion as stateVersion, u.updatedAt as updatedAt " +
+            "from AppUser u where u.stateVersion > 0 and u.updatedAt >= :since")
+    List<UserStateVersion> findStateVersionsUpdatedSince(@Param("since") LocalDateTime since);
+
+    // Row lock for LoginAttemptService; the caller's transaction holds it until commit
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select u from AppUser u where u.username = :username")
+    AppUser lockByUsername(@Param("username") String username);
+
+    // Targeted updates bump the optimistic lock version, so a stale copy of the user cannot overwrite them
+    @Modifying
+    @Transactional
+    @Query("update AppUser u set u.loginAttempts = 0, u.version = u.version + 1 " +
+            "where u.username = :username and u.loginAttempts <> 0")
+    int resetLoginAttempts(@Param("username") String username);
+
+    @Modifying
+    @Transactional
+    @Query("update AppUser u set u.password = :password, u.version = u.version + 1 where u.username = :username")
+    int updatePassword(@Param("username") String username, @Param("password") String password);
+
+    interface UserStateVersion {
+        String getUsername();
+
+        int getStateVersion();
+
+        LocalDateTime getUpdatedAt();
+    }
 }
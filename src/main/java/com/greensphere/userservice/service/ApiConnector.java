@@ -4,6 +4,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.greensphere.userservice.dto.response.notificationServiceResponse.SmsResponse;
 import com.greensphere.userservice.exceptions.ApiFailureException;
 import com.greensphere.userservice.exceptions.ApiUnavailableException;
+import com.greensphere.userservice.utils.Bulkhead;
+import com.greensphere.userservice.utils.CircuitBreaker;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -12,14 +14,12 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 
+import java.time.Duration;
 import java.util.HashMap;
-import java.util.logging.Logger;
 
 @Service
 @Slf4j
@@ -28,10 +28,14 @@ public class ApiConnector {
 
     private final ObjectMapper objectMapper;
     private final WebClient webClient;
+    private final CircuitBreaker smsCircuitBreaker;
+    private final Bulkhead smsBulkhead;
     @Value("${sms.service.url}")
     String smsServiceUrl;
     @Value("${is.bypassed}")
     boolean isBypassed;
+    @Value("${sms.request-deadline-ms:8000}")
+    long requestDeadline = 8000;
 
     public HttpHeaders getHttpHeaders() {
         HttpHeaders httpHeaders = new HttpHeaders();
@@ -40,6 +44,22 @@ public class ApiConnector {
     }
 
     public String sendPostRequest(String url, Object request, HttpHeaders httpHeaders) {
+        if (!smsBulkhead.tryEnter()) {
+            log.warn("sendPostRequest-> rejected, too many concurrent calls to: {}", url);
+            throw new ApiUnavailableException("sendPostRequest-> too many concurrent calls to " + url);
+        }
+        try {
+            if (!smsCircuitBreaker.tryAcquirePermission()) {
+                log.warn("sendPostRequest-> rejected, circuit open for: {}", url);
+                throw new ApiUnavailableException("sendPostRequest-> circuit open for " + url);
+            }
+            return execute(url, request, httpHeaders);
+        } finally {
+            smsBulkhead.exit();
+        }
+    }
+
+    private String execute(String url, Object request, HttpHeaders httpHeaders) {
         try {
             log.info("sendPostRequest-> url: " + url);
             log.info("sendPostRequest-> request: " + objectMapper.writeValueAsString(request));
@@ -51,40 +71,35 @@ public class ApiConnector {
                     .body(BodyInserters.fromValue(request))
                     .retrieve()
                     .toEntity(String.class)
+                    .timeout(Duration.ofMillis(requestDeadline))
                     .block();
 
+            smsCircuitBreaker.onSuccess();
             if (response == null) {
                 log.error("sendPostRequest-> response is null");
                 return null;
             }
             log.info("sendPostRequest-> response: " + response);
             return response.getBody() != null ? response.getBody() : null;
-        } catch (HttpClientErrorException e) {
-            log.info("sendPostRequest-> Response Code: " + e.getStatusCode().value());
-            if (e.getStatusCode().equals(HttpStatus.UNAUTHORIZED)) {
-                log.warn("sendPostRequest-> Exception: Unauthorized");
-            } else if (e.getStatusCode().equals(HttpStatus.BAD_REQUEST) || e.getStatusCode().equals(HttpStatus.NOT_FOUND)) {
-                return null;
-            } else {
-                //Any other HTTP responses
-                log.error("sendPostRequest-> Exception: Invalid response received");
-            }
-            return null;
         } catch (WebClientResponseException e) {
             log.warn("sendPostRequest-> Exception: WebClientResponseException, response: " + e.getResponseBodyAsString());
+            // only server side errors count against the circuit, a 4xx means the service is up
+            if (e.getStatusCode().is5xxServerError()) {
+                smsCircuitBreaker.onFailure();
+            } else {
+                smsCircuitBreaker.onSuccess();
+            }
             if (e.getStatusCode().equals(HttpStatus.BAD_REQUEST) || e.getStatusCode().equals(HttpStatus.INTERNAL_SERVER_ERROR)) {
                 return e.getResponseBodyAsString();
             } else {
                 log.warn("sendPostRequest-> Exception: WebClientResponseException, response_code: " + e.getStatusCode());
                 return null;
             }
-        } catch (HttpServerErrorException e) {
-            log.error("sendPostRequest-> HttpServerErrorException: response Code: " + e.getStatusCode().value());
-            log.error("sendPostRequest-> Exception: Service not available");
-            throw new ApiUnavailableException(e.getResponseBodyAsString());
         } catch (Exception e) {
+            // connect failures, timeouts and exhausted connection pools
+            smsCircuitBreaker.onFailure();
             log.error("sendPostRequest-> Exception: " + e.getMessage(), e);
-            return null;
+            throw new ApiUnavailableException("sendPostRequest-> " + url + " unavailable: " + e.getMessage());
         }
     }
 
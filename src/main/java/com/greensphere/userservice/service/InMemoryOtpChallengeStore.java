@@ -0,0 +1,86 @@
+package com.greensphere.userservice.service;
+
+import com.greensphere.userservice.entity.OtpChallenge;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Only valid when a single node serves both the issue and the verify call
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "otp.challenge.store", havingValue = "memory")
+public class InMemoryOtpChallengeStore implements OtpChallengeStore {
+
+    private final Map<String, OtpChallenge> challenges = new ConcurrentHashMap<>();
+    // challenges redeemed by a transaction that has not completed yet
+    private final Set<String> consuming = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public void save(OtpChallenge challenge) {
+        challenges.put(challenge.getChallengeId(), challenge);
+    }
+
+    @Override
+    public OtpChallenge find(String challengeId) {
+        OtpChallenge challenge = challenges.get(challengeId);
+        return challenge == null || challenge.isExpired(LocalDateTime.now()) ? null : challenge;
+    }
+
+    @Override
+    public boolean tryRecordAttempt(String challengeId) {
+        boolean[] recorded = new boolean[1];
+        challenges.computeIfPresent(challengeId, (id, challenge) -> {
+            if (challenge.getAttempts() < challenge.getMaxAttempts()) {
+                challenge.setAttempts(challenge.getAttempts() + 1);
+                recorded[0] = true;
+            }
+            return challenge;
+        });
+        return recorded[0];
+    }
+
+    @Override
+    public boolean consume(String challengeId) {
+        if (!challenges.containsKey(challengeId) || !consuming.add(challengeId)) {
+            return false;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            challenges.remove(challengeId);
+            consuming.remove(challengeId);
+            return true;
+        }
+        // removed only once the caller's transaction commits; a rollback leaves the code redeemable
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    challenges.remove(challengeId);
+                }
+                consuming.remove(challengeId);
+            }
+        });
+        return true;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${otp.challenge.purge-interval-ms:60000}",
+            initialDelayString = "${otp.challenge.purge-interval-ms:60000}")
+    public int purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        int before = challenges.size();
+        challenges.values().removeIf(challenge -> challenge.isExpired(now));
+        int purged = before - challenges.size();
+        if (purged > 0) {
+            log.info("purgeExpired-> removed {} expired otp challenge(s)", purged);
+        }
+        return purged;
+    }
+}
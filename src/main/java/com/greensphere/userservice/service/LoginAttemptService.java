@@ -0,0 +1,43 @@
+package com.greensphere.userservice.service;
+
+import com.greensphere.userservice.entity.AppUser;
+import com.greensphere.userservice.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+import static com.greensphere.userservice.enums.Status.ACTIVE;
+import static com.greensphere.userservice.enums.Status.DISABLED;
+
+/**
+ * Counts failed logins. The user row is locked with SELECT ... FOR UPDATE, so concurrent failures
+ * for the same user are counted one after another, and the change is written through the entity,
+ * so the optimistic lock version and updatedAt move with it.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class LoginAttemptService {
+
+    private final UserRepository userRepository;
+
+    // Returns the updated user, or null when the user is no longer active
+    @Transactional
+    public AppUser recordFailedLogin(String username, int maxAttempts, String disabledReason) {
+        AppUser user = userRepository.lockByUsername(username);
+        if (user == null || !ACTIVE.name().equals(user.getStatus())) {
+            return null;
+        }
+        user.setLoginAttempts(user.getLoginAttempts() + 1);
+        if (user.getLoginAttempts() >= maxAttempts) {
+            user.setStatus(DISABLED.name());
+            user.setDisabledReason(disabledReason);
+            user.setDisabledAt(LocalDateTime.now());
+            user.setStateVersion(user.getStateVersion() + 1);
+        }
+        return user;
+    }
+}
@@ -0,0 +1,29 @@
+package com.greensphere.userservice.service;
+
+import com.greensphere.userservice.entity.OtpChallenge;
+import com.greensphere.userservice.utils.TokenDigestUtil;
+
+/**
+ * Expiring OTP challenges keyed by challenge id, kept apart from the AppUser row so issuing and
+ * checking a code never writes to the user table. Selected with otp.challenge.store
+ * ("table" by default, or "memory" for a single node).
+ */
+public interface OtpChallengeStore {
+
+    void save(OtpChallenge challenge);
+
+    // Returns null when the challenge does not exist or has expired
+    OtpChallenge find(String challengeId);
+
+    // Counts an attempt only while attempts < maxAttempts; false when none are left, decided atomically
+    boolean tryRecordAttempt(String challengeId);
+
+    // Removes the challenge; true for exactly one caller, so a code can only be redeemed once
+    boolean consume(String challengeId);
+
+    int purgeExpired();
+
+    static byte[] digest(String challengeId, String otp) {
+        return TokenDigestUtil.sha256(challengeId + ":" + otp);
+    }
+}
@@ -0,0 +1,148 @@
+package com.greensphere.userservice.service;
+
+import com.greensphere.userservice.utils.HashedTimerWheel;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory OTP send limits per user: a cooldown between sends and a maximum number of sends per
+ * window. Both are decided from deadlines on the throttle's clock, so a throttled request is
+ * answered from memory without touching the database or the SMS service. A timer on a hashed
+ * timer wheel drops each entry once its window has closed, so an entry only lives as long as its
+ * window. A send taken inside a transaction is given back if that transaction does not commit, so
+ * a failed registration or SMS enqueue does not use up the user's quota.
+ */
+@Service
+@Slf4j
+public class OtpResendThrottle {
+
+    private final long cooldownNanos;
+    private final int maxPerWindow;
+    private final long windowSeconds;
+    private final HashedTimerWheel timerWheel;
+    private final LongSupplier nanoClock;
+    private final Map<String, State> states = new ConcurrentHashMap<>();
+
+    @Autowired
+    public OtpResendThrottle(@Value("${otp.resend.cooldown-seconds:60}") long cooldownSeconds,
+                             @Value("${otp.resend.max-per-window:3}") int maxPerWindow,
+                             @Value("${otp.resend.window-seconds:3600}") long windowSeconds,
+                             @Value("${otp.resend.tick-ms:100}") long tickMillis) {
+        this(cooldownSeconds, maxPerWindow, windowSeconds,
+                new HashedTimerWheel("otp-resend-timer", tickMillis, 1024), System::nanoTime);
+    }
+
+    // the wheel must run on the same clock
+    OtpResendThrottle(long cooldownSeconds, int maxPerWindow, long windowSeconds,
+                      HashedTimerWheel timerWheel, LongSupplier nanoClock) {
+        this.cooldownNanos = TimeUnit.SECONDS.toNanos(cooldownSeconds);
+        this.maxPerWindow = maxPerWindow;
+        this.windowSeconds = windowSeconds;
+        this.timerWheel = timerWheel;
+        this.nanoClock = nanoClock;
+    }
+
+    // Returns 0 when the send is allowed and recorded, otherwise the seconds to wait before retrying
+    public long tryAcquire(String username) {
+        while (true) {
+            State state = states.computeIfAbsent(username, key -> new State());
+            synchronized (state) {
+                if (state.expired) {
+                    // the window closed between the lookup and the lock, start a fresh one
+                    continue;
+                }
+                long now = nanoClock.getAsLong();
+                if (state.sent > 0 && now - state.windowEndsAt >= 0) {
+                    // the window has closed but its timer has not run yet
+                    state.sent = 0;
+                }
+                if (state.sent > 0 && now - state.cooldownEndsAt < 0) {
+                    return secondsUntil(state.cooldownEndsAt, now);
+                }
+                if (state.sent >= maxPerWindow) {
+                    return secondsUntil(state.windowEndsAt, now);
+                }
+                if (state.sent == 0) {
+                    state.windowEndsAt = now + TimeUnit.SECONDS.toNanos(windowSeconds);
+                    timerWheel.schedule(() -> expire(username, state), windowSeconds, TimeUnit.SECONDS);
+                }
+                long windowEndsAt = state.windowEndsAt;
+                long previousCooldownEndsAt = state.cooldownEndsAt;
+                state.sent++;
+                state.cooldownEndsAt = now + cooldownNanos;
+                releaseOnRollback(state, windowEndsAt, previousCooldownEndsAt, state.cooldownEndsAt);
+                return 0;
+            }
+        }
+    }
+
+    private void releaseOnRollback(State state, long windowEndsAt,
+                                   long previousCooldownEndsAt, long cooldownEndsAt) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    release(state, windowEndsAt, previousCooldownEndsAt, cooldownEndsAt);
+                }
+            }
+        });
+    }
+
+    private void release(State state, long windowEndsAt, long previousCooldownEndsAt, long cooldownEndsAt) {
+        synchronized (state) {
+            // nothing to give back once the send's window has closed
+            if (state.expired || state.sent == 0 || state.windowEndsAt != windowEndsAt) {
+                return;
+            }
+            state.sent--;
+            // a later send keeps its own cooldown
+            if (state.cooldownEndsAt == cooldownEndsAt) {
+                state.cooldownEndsAt = previousCooldownEndsAt;
+            }
+        }
+    }
+
+    private void expire(String username, State state) {
+        synchronized (state) {
+            // a window restarted by tryAcquire has its own timer
+            if (nanoClock.getAsLong() - state.windowEndsAt < 0) {
+                return;
+            }
+            state.expired = true;
+            states.remove(username, state);
+        }
+    }
+
+    private static long secondsUntil(long deadlineNanos, long now) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(deadlineNanos - now + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    public int size() {
+        return states.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timerWheel.stop();
+    }
+
+    private static class State {
+        private int sent;
+        private boolean expired;
+        private long cooldownEndsAt;
+        private long windowEndsAt;
+    }
+}
@@ -0,0 +1,139 @@
+package com.greensphere.userservice.service;
+
+import com.greensphere.userservice.entity.Parameter;
+import com.greensphere.userservice.exceptions.MissingParameterException;
+import com.greensphere.userservice.repository.ParameterRepository;
+import com.greensphere.userservice.utils.AppConstants;
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Typed, pre-parsed snapshot of the Parameter table. Loaded once at startup (failing fast when a
+ * required parameter is missing or malformed) and swapped atomically on refresh, so the
+ * registration and login flows read parameters without querying the database.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ParameterRegistry {
+
+    private static final List<String> REQUIRED_PARAMETERS = List.of(
+            AppConstants.OTP_LENGTH,
+            AppConstants.OTP_MESSAGE,
+            AppConstants.OTP_EXPIRED_TIME,
+            AppConstants.OTP_VERIFY_ATTEMPTS,
+            AppConstants.LOGIN_ATTEMPTS,
+            AppConstants.LOGIN_ATTEMPTS_EXCEEDED_MESSAGE);
+
+    private final ParameterRepository parameterRepository;
+
+    private volatile Snapshot snapshot;
+
+    @PostConstruct
+    public void init() {
+        snapshot = load();
+    }
+
+    @Scheduled(fixedDelayString = "${parameter.refresh-interval-ms:300000}",
+            initialDelayString = "${parameter.refresh-interval-ms:300000}")
+    public void scheduledRefresh() {
+        refresh();
+    }
+
+    // Keeps serving the previous snapshot when the table is temporarily inconsistent
+    public boolean refresh() {
+        try {
+            snapshot = load();
+            log.info("ParameterRegistry-> parameters refreshed");
+            return true;
+        } catch (Exception e) {
+            log.error("ParameterRegistry-> refresh failed, keeping previous parameters: {}", e.getMessage(), e);
+            return false;
+        }
+    }
+
+    public Snapshot get() {
+        return snapshot;
+    }
+
+    private Snapshot load() {
+        Map<String, String> values = new HashMap<>();
+        for (Parameter parameter : parameterRepository.findAll()) {
+            if (parameter.getName() != null && parameter.getValue() != null) {
+                values.put(parameter.getName(), parameter.getValue());
+            }
+        }
+        for (String name : REQUIRED_PARAMETERS) {
+            if (values.get(name) == null) {
+                log.warn("ParameterRegistry-> {} parameter is missing from database", name);
+                throw new MissingParameterException(name + " parameter is missing from database, Please add missing " + name + " parameter");
+            }
+        }
+        return new Snapshot(values);
+    }
+
+    @Getter
+    public static class Snapshot {
+        private final Map<String, String> values;
+        private final int otpLength;
+        private final MessageTemplate otpMessage;
+        private final MessageTemplate resendOtpMessage;
+        private final long otpExpiredTime;
+        private final int otpVerifyAttempts;
+        private final int loginAttempts;
+        private final String loginAttemptsExceededMessage;
+
+        private Snapshot(Map<String, String> values) {
+            this.values = Map.copyOf(values);
+            this.otpLength = parseInt(values, AppConstants.OTP_LENGTH);
+            this.otpMessage = new MessageTemplate(values.get(AppConstants.OTP_MESSAGE), "<otp>");
+            // optional, resends use the registration message when it is not configured
+            this.resendOtpMessage = values.containsKey(AppConstants.RE_SEND_OTP)
+                    ? new MessageTemplate(values.get(AppConstants.RE_SEND_OTP), "<otp>")
+                    : otpMessage;
+            this.otpExpiredTime = Long.parseLong(values.get(AppConstants.OTP_EXPIRED_TIME).trim());
+            this.otpVerifyAttempts = parseInt(values, AppConstants.OTP_VERIFY_ATTEMPTS);
+            this.loginAttempts = parseInt(values, AppConstants.LOGIN_ATTEMPTS);
+            this.loginAttemptsExceededMessage = values.get(AppConstants.LOGIN_ATTEMPTS_EXCEEDED_MESSAGE);
+        }
+
+        public String getValue(String name) {
+            return values.get(name);
+        }
+
+        private static int parseInt(Map<String, String> values, String name) {
+            return Integer.parseInt(values.get(name).trim());
+        }
+    }
+
+    /**
+     * Message with a single placeholder, split once so rendering is a plain concatenation.
+     */
+    public static class MessageTemplate {
+        private final String[] parts;
+
+        public MessageTemplate(String template, String placeholder) {
+            this.parts = template.split(Pattern.quote(placeholder), -1);
+        }
+
+        public String render(String value) {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < parts.length; i++) {
+                if (i > 0) {
+                    sb.append(value);
+                }
+                sb.append(parts[i]);
+            }
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.greensphere.userservice.service;
+
+import com.greensphere.userservice.entity.AppUser;
+import com.greensphere.userservice.exceptions.HashingRejectedException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+/**
+ * Single place where passwords are hashed, using the shared PasswordEncoder. Stored hashes in
+ * another format, or with a BCrypt cost below password.bcrypt.strength, are re-hashed after a
+ * successful login, so the cost can be raised per deployment without forcing users to reset.
+ * The encoder's upgradeEncoding decides both, and never asks to lower an existing hash's cost.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class PasswordService {
+
+    private final PasswordEncoder passwordEncoder;
+
+    private volatile String dummyHash;
+
+    public String encode(String rawPassword) {
+        return passwordEncoder.encode(rawPassword);
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return passwordEncoder.matches(rawPassword, encodedPassword);
+    }
+
+    // Spends the same hashing work as a real check when there is no stored hash, so response
+    // times do not reveal whether an account exists
+    public void matchesDummy(String rawPassword) {
+        String hash = dummyHash;
+        if (hash == null) {
+            hash = encode(UUID.randomUUID().toString());
+            dummyHash = hash;
+        }
+        passwordEncoder.matches(rawPassword == null ? "" : rawPassword, hash);
+    }
+
+    public boolean needsRehash(String encodedPassword) {
+        return encodedPassword != null && passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    // Call only after rawPassword has been verified against the stored hash
+    public boolean rehashIfNeeded(AppUser appUser, String rawPassword) {
+        if (!needsRehash(appUser.getPassword())) {
+            return false;
+        }
+        try {
+            appUser.setPassword(encode(rawPassword));
+        } catch (HashingRejectedException e) {
+            // the upgrade is opportunistic; the next login retries it
+            log.warn("rehashIfNeeded-> skipped, password hashing is saturated");
+            return false;
+        }
+        log.info("rehashIfNeeded-> password hash upgraded for user: {}", appUser.getUsername());
+        return true;
+    }
+}
@@ -0,0 +1,169 @@
+package com.greensphere.userservice.service;
+
+import com.greensphere.userservice.enums.RateLimitedEndpoint;
+import com.greensphere.userservice.utils.TokenBucket;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token buckets for the unauthenticated endpoints, one per endpoint and client IP and one per
+ * endpoint and identity (mobile number, email or username). Buckets live in a ConcurrentHashMap
+ * and each is a CAS-updated timestamp, so requests never wait on a shared lock. When the map
+ * grows past rate-limit.max-keys, buckets that have refilled completely are dropped first (they
+ * carry no state), then client IP buckets, and identity buckets only as a last resort, so a flood
+ * of new IPs cannot reset the limit on an identity under attack; full buckets are also purged on a
+ * schedule.
+ */
+@Service
+@Slf4j
+public class RateLimiter {
+
+    private final Map<RateLimitedEndpoint, Limit> ipLimits = new EnumMap<>(RateLimitedEndpoint.class);
+    private final Map<RateLimitedEndpoint, Limit> identityLimits = new EnumMap<>(RateLimitedEndpoint.class);
+    private final Map<RateLimitedEndpoint, LongAdder> allowed = new EnumMap<>(RateLimitedEndpoint.class);
+    private final Map<RateLimitedEndpoint, LongAdder> rejected = new EnumMap<>(RateLimitedEndpoint.class);
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    private final LongAdder evictions = new LongAdder();
+    private final int maxKeys;
+
+    public RateLimiter(@Value("${rate-limit.max-keys:100000}") int maxKeys,
+                       @Value("${rate-limit.register-init.ip.capacity:20}") int registerInitIpCapacity,
+                       @Value("${rate-limit.register-init.ip.refill-per-minute:10}") double registerInitIpRefill,
+                       @Value("${rate-limit.register-init.identity.capacity:3}") int registerInitIdentityCapacity,
+                       @Value("${rate-limit.register-init.identity.refill-per-minute:1}") double registerInitIdentityRefill,
+                       @Value("${rate-limit.register-verify.ip.capacity:30}") int registerVerifyIpCapacity,
+                       @Value("${rate-limit.register-verify.ip.refill-per-minute:20}") double registerVerifyIpRefill,
+                       @Value("${rate-limit.register-verify.identity.capacity:5}") int registerVerifyIdentityCapacity,
+                       @Value("${rate-limit.register-verify.identity.refill-per-minute:2}") double registerVerifyIdentityRefill,
+                       @Value("${rate-limit.login.ip.capacity:50}") int loginIpCapacity,
+                       @Value("${rate-limit.login.ip.refill-per-minute:30}") double loginIpRefill,
+                       @Value("${rate-limit.login.identity.capacity:10}") int loginIdentityCapacity,
+                       @Value("${rate-limit.login.identity.refill-per-minute:5}") double loginIdentityRefill) {
+        ipLimits.put(RateLimitedEndpoint.REGISTER_INIT, new Limit(registerInitIpCapacity, registerInitIpRefill));
+        identityLimits.put(RateLimitedEndpoint.REGISTER_INIT, new Limit(registerInitIdentityCapacity, registerInitIdentityRefill));
+        ipLimits.put(RateLimitedEndpoint.REGISTER_VERIFY, new Limit(registerVerifyIpCapacity, registerVerifyIpRefill));
+        identityLimits.put(RateLimitedEndpoint.REGISTER_VERIFY, new Limit(registerVerifyIdentityCapacity, registerVerifyIdentityRefill));
+        ipLimits.put(RateLimitedEndpoint.LOGIN, new Limit(loginIpCapacity, loginIpRefill));
+        identityLimits.put(RateLimitedEndpoint.LOGIN, new Limit(loginIdentityCapacity, loginIdentityRefill));
+        for (RateLimitedEndpoint endpoint : RateLimitedEndpoint.values()) {
+            allowed.put(endpoint, new LongAdder());
+            rejected.put(endpoint, new LongAdder());
+        }
+        this.maxKeys = maxKeys;
+    }
+
+    /**
+     * Takes a token from the client IP bucket and from each identity bucket of the endpoint.
+     * Returns 0 when the request may proceed, otherwise the seconds until it may be retried.
+     */
+    public long tryAcquire(RateLimitedEndpoint endpoint, String clientIp, String... identities) {
+        long now = System.nanoTime();
+        long waitNanos = consume(endpoint.getKey() + "|ip|" + clientIp, ipLimits.get(endpoint), now);
+        for (String identity : identities) {
+            if (waitNanos > 0) {
+                break;
+            }
+            if (identity != null && !identity.isBlank()) {
+                waitNanos = consume(endpoint.getKey() + "|id|" + identity, identityLimits.get(endpoint), now);
+            }
+        }
+        if (waitNanos == 0) {
+            allowed.get(endpoint).increment();
+            return 0;
+        }
+        rejected.get(endpoint).increment();
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    private long consume(String key, Limit limit, long now) {
+        TokenBucket bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(limit.capacity, limit.refillPerSecond));
+            if (buckets.size() > maxKeys) {
+                evict(now);
+            }
+        }
+        return bucket.tryConsume(now);
+    }
+
+    // one thread trims at a time; the others carry on and may overshoot the bound briefly
+    private void evict(long now) {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            int target = maxKeys - maxKeys / 10;
+            int before = buckets.size();
+            buckets.values().removeIf(bucket -> bucket.isFull(now));
+            int droppedIp = evictWhile(target, "|ip|");
+            int droppedIdentity = evictWhile(target, "|id|");
+            if (droppedIp + droppedIdentity > 0) {
+                log.warn("evict-> rate limit map over {} keys, dropped {} ip and {} identity bucket(s) still in use",
+                        maxKeys, droppedIp, droppedIdentity);
+            }
+            evictions.add(Math.max(0, before - buckets.size()));
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    private int evictWhile(int target, String keyType) {
+        int dropped = 0;
+        Iterator<String> iterator = buckets.keySet().iterator();
+        while (buckets.size() > target && iterator.hasNext()) {
+            String key = iterator.next();
+            // the type follows the endpoint key, identities are user input and may contain it too
+            if (key.startsWith(keyType, key.indexOf('|'))) {
+                iterator.remove();
+                dropped++;
+            }
+        }
+        return dropped;
+    }
+
+    @Scheduled(fixedDelayString = "${rate-limit.purge-interval-ms:60000}",
+            initialDelayString = "${rate-limit.purge-interval-ms:60000}")
+    public void purgeFullBuckets() {
+        long now = System.nanoTime();
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+        log.debug("purgeFullBuckets-> removed {} idle rate limit bucket(s)", before - buckets.size());
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public long getAllowedCount(RateLimitedEndpoint endpoint) {
+        return allowed.get(endpoint).sum();
+    }
+
+    public long getRejectedCount(RateLimitedEndpoint endpoint) {
+        return rejected.get(endpoint).sum();
+    }
+
+    private static class Limit {
+        private final int capacity;
+        private final double refillPerSecond;
+
+        private Limit(int capacity, double refillPerMinute) {
+            this.capacity = capacity;
+            this.refillPerSecond = refillPerMinute / 60.0;
+        }
+    }
+}
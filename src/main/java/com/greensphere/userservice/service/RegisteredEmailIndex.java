@@ -0,0 +1,193 @@
+package com.greensphere.userservice.service;
+
+import com.greensphere.userservice.repository.UserRepository;
+import com.greensphere.userservice.utils.BloomFilter;
+import com.greensphere.userservice.utils.TokenDigestUtil;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bloom filter of registered emails, so a login for an email that was never registered is
+ * answered without querying the database. Emails are added on registration and email change,
+ * users written by other nodes are picked up from AppUser.updatedAt every sync interval, and the
+ * filter is rebuilt from the table in the background so changed emails age out. The first build
+ * starts once the application is ready and runs off the startup thread; until it succeeds every
+ * email is treated as possibly registered and logins go to the database. Only one rebuild runs at
+ * a time. Emails are indexed exactly as stored, matching the case-sensitive lookup in login.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class RegisteredEmailIndex {
+
+    private final UserRepository userRepository;
+
+    @Value("${login.email-index.enabled:true}")
+    private boolean enabled;
+    @Value("${login.email-index.expected-entries:1000000}")
+    private int expectedEntries;
+    @Value("${login.email-index.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+    // overlap between syncs so a row committed just before the previous query is not missed
+    @Value("${login.email-index.sync-overlap-seconds:30}")
+    private long syncOverlapSeconds;
+
+    private volatile BloomFilter bloomFilter;
+    private volatile LocalDateTime lastSync;
+    private List<String> addedDuringRebuild;
+
+    private final LongAdder skippedLookups = new LongAdder();
+    private volatile int indexedCount;
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("email-index-rebuild").daemon(true).factory());
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuildAsync();
+    }
+
+    // Returns false when the index is disabled or a rebuild is already running
+    public boolean rebuildAsync() {
+        if (!enabled || !rebuilding.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            rebuildExecutor.execute(() -> {
+                try {
+                    rebuild();
+                } finally {
+                    rebuilding.set(false);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            rebuilding.set(false);
+            return false;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${login.email-index.rebuild-interval-ms:1800000}",
+            initialDelayString = "${login.email-index.rebuild-interval-ms:1800000}")
+    public void scheduledRebuild() {
+        if (!enabled || !rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            rebuild();
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    private void rebuild() {
+        try {
+            buildFilter();
+        } catch (Exception e) {
+            log.error("RegisteredEmailIndex-> rebuild failed, keeping previous filter: {}", e.getMessage(), e);
+        }
+    }
+
+    private void buildFilter() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        synchronized (this) {
+            addedDuringRebuild = new ArrayList<>();
+        }
+        try {
+            List<String> emails = userRepository.findAllEmails();
+            BloomFilter filter = new BloomFilter(Math.max(expectedEntries, emails.size() * 2), falsePositiveRate);
+            emails.forEach(email -> filter.put(digest(email)));
+            // writers are serialized with the swap so an email added mid-rebuild is never lost
+            synchronized (this) {
+                addedDuringRebuild.forEach(email -> filter.put(digest(email)));
+                bloomFilter = filter;
+                lastSync = startedAt;
+                indexedCount = emails.size();
+            }
+            log.info("RegisteredEmailIndex-> indexed {} email(s)", emails.size());
+        } finally {
+            synchronized (this) {
+                addedDuringRebuild = null;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${login.email-index.sync-interval-ms:5000}",
+            initialDelayString = "${login.email-index.sync-interval-ms:5000}")
+    public void sync() {
+        LocalDateTime since = lastSync;
+        if (!enabled || since == null) {
+            return;
+        }
+        try {
+            LocalDateTime startedAt = LocalDateTime.now();
+            List<String> emails = userRepository.findEmailsUpdatedSince(since.minusSeconds(syncOverlapSeconds));
+            emails.forEach(this::add);
+            lastSync = startedAt;
+        } catch (Exception e) {
+            log.error("RegisteredEmailIndex-> sync failed: {}", e.getMessage(), e);
+        }
+    }
+
+    public synchronized void add(String email) {
+        if (email == null) {
+            return;
+        }
+        if (bloomFilter != null) {
+            bloomFilter.put(digest(email));
+        }
+        if (addedDuringRebuild != null) {
+            addedDuringRebuild.add(email);
+        }
+    }
+
+    // false only when the email is certainly not registered
+    public boolean mightBeRegistered(String email) {
+        BloomFilter filter = bloomFilter;
+        if (!enabled || filter == null) {
+            return true;
+        }
+        if (email == null || !filter.mightContain(digest(email))) {
+            skippedLookups.increment();
+            return false;
+        }
+        return true;
+    }
+
+    public boolean isReady() {
+        return bloomFilter != null;
+    }
+
+    public int getIndexedCount() {
+        return indexedCount;
+    }
+
+    public long getSkippedLookupCount() {
+        return skippedLookups.sum();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    private static byte[] digest(String email) {
+        return TokenDigestUtil.sha256(email);
+    }
+}
@@ -0,0 +1,86 @@
+package com.greensphere.userservice.service;
+
+import com.greensphere.userservice.entity.Permission;
+import com.greensphere.userservice.entity.Role;
+import com.greensphere.userservice.repository.RoleRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Immutable snapshot of role name to granted authorities. Each permission maps to a single shared
+ * SimpleGrantedAuthority instance, so resolving a user's authorities is a map lookup. The snapshot
+ * is rebuilt on a schedule or through {@link #rebuild()} after roles or permissions are changed.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class RoleAuthorityRegistry {
+
+    private final RoleRepository roleRepository;
+
+    private volatile Map<String, List<GrantedAuthority>> authoritiesByRole = Map.of();
+
+    @PostConstruct
+    public void init() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${role.authorities.refresh-interval-ms:600000}",
+            initialDelayString = "${role.authorities.refresh-interval-ms:600000}")
+    public void scheduledRebuild() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("RoleAuthorityRegistry-> rebuild failed, keeping previous snapshot: {}", e.getMessage(), e);
+        }
+    }
+
+    public void rebuild() {
+        Map<String, GrantedAuthority> interned = new HashMap<>();
+        Map<String, List<GrantedAuthority>> snapshot = new HashMap<>();
+        for (Role role : roleRepository.findAllWithPermissions()) {
+            snapshot.put(role.getName(), toAuthorities(role, interned));
+        }
+        authoritiesByRole = Map.copyOf(snapshot);
+        log.info("RoleAuthorityRegistry-> loaded authorities for {} role(s)", snapshot.size());
+    }
+
+    public List<GrantedAuthority> getAuthorities(Role role) {
+        List<GrantedAuthority> authorities = authoritiesByRole.get(role.getName());
+        // a role created after the last rebuild is resolved from the entity itself
+        return authorities != null ? authorities : toAuthorities(role, new HashMap<>());
+    }
+
+    public List<GrantedAuthority> getAuthorities(Collection<Role> roles) {
+        if (roles.size() == 1) {
+            return getAuthorities(roles.iterator().next());
+        }
+        Set<GrantedAuthority> merged = new LinkedHashSet<>();
+        roles.forEach(role -> merged.addAll(getAuthorities(role)));
+        return List.copyOf(merged);
+    }
+
+    public List<String> getAuthorityNames(Collection<Role> roles) {
+        return getAuthorities(roles).stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
+    }
+
+    private static List<GrantedAuthority> toAuthorities(Role role, Map<String, GrantedAuthority> interned) {
+        if (role.getPermissions() == null) {
+            return List.of();
+        }
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        for (Permission permission : role.getPermissions()) {
+            authorities.add(interned.computeIfAbsent(permission.getName(), SimpleGrantedAuthority::new));
+        }
+        return List.copyOf(authorities);
+    }
+}
@@ -0,0 +1,123 @@
+package com.greensphere.userservice.service;
+
+import com.greensphere.userservice.dto.response.notificationServiceResponse.SmsResponse;
+import com.greensphere.userservice.entity.SmsOutbox;
+import com.greensphere.userservice.repository.SmsOutboxRepository;
+import com.greensphere.userservice.utils.ResponseCodeUtil;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.greensphere.userservice.enums.Status.*;
+
+/**
+ * Drains the SMS outbox in batches off the request path. Each batch is sent with bounded
+ * concurrency; failures are retried with exponential backoff until sms.outbox.max-attempts.
+ * Sends run on the dispatcher's own executor and the scheduler thread never waits for them, so a
+ * slow notification service cannot hold up the other @Scheduled jobs. A poll is skipped while the
+ * previous batch is still in flight.
+ */
+@Service
+@Slf4j
+public class SmsOutboxDispatcher {
+
+    private final SmsOutboxRepository smsOutboxRepository;
+    private final SmsOutboxService smsOutboxService;
+    private final ApiConnector apiConnector;
+    private final ExecutorService executor;
+    private final AtomicBoolean dispatching = new AtomicBoolean();
+
+    @Value("${sms.outbox.batch-size:50}")
+    private int batchSize;
+    @Value("${sms.outbox.max-attempts:5}")
+    private int maxAttempts;
+    @Value("${sms.outbox.backoff-base-seconds:5}")
+    private long backoffBaseSeconds;
+    @Value("${sms.outbox.backoff-max-seconds:600}")
+    private long backoffMaxSeconds;
+    @Value("${sms.outbox.lease-seconds:60}")
+    private long leaseSeconds;
+
+    public SmsOutboxDispatcher(SmsOutboxRepository smsOutboxRepository,
+                               SmsOutboxService smsOutboxService,
+                               ApiConnector apiConnector,
+                               @Value("${sms.outbox.concurrency:4}") int concurrency,
+                               @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.smsOutboxRepository = smsOutboxRepository;
+        this.smsOutboxService = smsOutboxService;
+        this.apiConnector = apiConnector;
+        // sends block on the notification service, so they park cheaply on virtual threads when enabled
+        this.executor = virtualThreads
+                ? Executors.newFixedThreadPool(concurrency, Thread.ofVirtual().name("sms-outbox-", 0).factory())
+                : Executors.newFixedThreadPool(concurrency);
+    }
+
+    @Scheduled(fixedDelayString = "${sms.outbox.poll-interval-ms:1000}")
+    public void dispatch() {
+        if (!dispatching.compareAndSet(false, true)) {
+            return;
+        }
+        boolean inFlight = false;
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            List<SmsOutbox> batch = smsOutboxService.claimBatch(now, now.plusSeconds(leaseSeconds), batchSize);
+            if (batch.isEmpty()) {
+                return;
+            }
+            log.info("dispatch-> sending {} queued sms", batch.size());
+            CompletableFuture.allOf(batch.stream()
+                            .map(smsOutbox -> CompletableFuture.runAsync(() -> send(smsOutbox), executor))
+                            .toArray(CompletableFuture[]::new))
+                    .whenComplete((result, e) -> dispatching.set(false));
+            inFlight = true;
+        } catch (Exception e) {
+            log.error("dispatch-> Exception: {}", e.getMessage(), e);
+        } finally {
+            if (!inFlight) {
+                dispatching.set(false);
+            }
+        }
+    }
+
+    private void send(SmsOutbox smsOutbox) {
+        boolean delivered = false;
+        try {
+            SmsResponse smsResponse = apiConnector.sendSms(smsOutbox.getMobile(), smsOutbox.getMessage());
+            delivered = ResponseCodeUtil.SUCCESS_CODE.equals(smsResponse.getCode());
+            if (!delivered) {
+                smsOutbox.setLastError(smsResponse.getCode() + " " + smsResponse.getMessage());
+            }
+        } catch (Exception e) {
+            log.warn("send-> sms delivery failed for outbox id: {}, {}", smsOutbox.getId(), e.getMessage());
+            smsOutbox.setLastError(e.getMessage());
+        }
+
+        smsOutbox.setAttempts(smsOutbox.getAttempts() + 1);
+        if (delivered) {
+            smsOutbox.setStatus(SENT.name());
+            smsOutbox.setSentAt(LocalDateTime.now());
+        } else if (smsOutbox.getAttempts() >= maxAttempts) {
+            smsOutbox.setStatus(FAILED.name());
+            log.error("send-> giving up on outbox id: {} after {} attempts", smsOutbox.getId(), smsOutbox.getAttempts());
+        } else {
+            long backoff = Math.min(backoffMaxSeconds, backoffBaseSeconds << Math.min(smsOutbox.getAttempts() - 1, 20));
+            smsOutbox.setStatus(PENDING.name());
+            smsOutbox.setNextAttemptAt(LocalDateTime.now().plusSeconds(backoff));
+        }
+        smsOutboxRepository.save(smsOutbox);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,58 @@
+package com.greensphere.userservice.service;
+
+import com.greensphere.userservice.entity.SmsOutbox;
+import com.greensphere.userservice.repository.SmsOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.greensphere.userservice.enums.Status.PENDING;
+
+/**
+ * Records outgoing SMS in the outbox table. Called inside the caller's transaction, so the
+ * message is only dispatched once the user changes it belongs to have been committed.
+ * SmsOutboxDispatcher claims due messages through claimBatch.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class SmsOutboxService {
+
+    private final SmsOutboxRepository smsOutboxRepository;
+
+    public SmsOutbox enqueueOtp(String username, String mobile, String message) {
+        return enqueue(username, mobile, message);
+    }
+
+    public SmsOutbox enqueueNotification(String mobile, String message) {
+        return enqueue(null, mobile, message);
+    }
+
+    // Leases a batch of due messages until leaseUntil; the row locks are held only for this transaction
+    @Transactional
+    public List<SmsOutbox> claimBatch(LocalDateTime now, LocalDateTime leaseUntil, int batchSize) {
+        List<Long> ids = smsOutboxRepository.lockDueIds(now, batchSize);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        smsOutboxRepository.lease(ids, leaseUntil);
+        return smsOutboxRepository.findAllById(ids);
+    }
+
+    private SmsOutbox enqueue(String username, String mobile, String message) {
+        SmsOutbox smsOutbox = SmsOutbox.builder()
+                .username(username)
+                .mobile(mobile)
+                .message(message)
+                .status(PENDING.name())
+                .nextAttemptAt(LocalDateTime.now())
+                .build();
+        smsOutboxRepository.save(smsOutbox);
+        log.info("enqueue-> sms queued for mobile: {}", mobile);
+        return smsOutbox;
+    }
+}
@@ -0,0 +1,52 @@
+package com.greensphere.userservice.service;
+
+import com.greensphere.userservice.entity.OtpChallenge;
+import com.greensphere.userservice.repository.OtpChallengeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "otp.challenge.store", havingValue = "table", matchIfMissing = true)
+public class TableOtpChallengeStore implements OtpChallengeStore {
+
+    private final OtpChallengeRepository otpChallengeRepository;
+
+    @Override
+    public void save(OtpChallenge challenge) {
+        otpChallengeRepository.save(challenge);
+    }
+
+    @Override
+    public OtpChallenge find(String challengeId) {
+        OtpChallenge challenge = otpChallengeRepository.findById(challengeId).orElse(null);
+        return challenge == null || challenge.isExpired(LocalDateTime.now()) ? null : challenge;
+    }
+
+    @Override
+    public boolean tryRecordAttempt(String challengeId) {
+        return otpChallengeRepository.incrementAttempts(challengeId) == 1;
+    }
+
+    @Override
+    public boolean consume(String challengeId) {
+        return otpChallengeRepository.deleteByChallengeId(challengeId) == 1;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${otp.challenge.purge-interval-ms:60000}",
+            initialDelayString = "${otp.challenge.purge-interval-ms:60000}")
+    public int purgeExpired() {
+        int purged = otpChallengeRepository.deleteExpired(LocalDateTime.now());
+        if (purged > 0) {
+            log.info("purgeExpired-> removed {} expired otp challenge(s)", purged);
+        }
+        return purged;
+    }
+}
@@ -0,0 +1,181 @@
+package com.greensphere.userservice.service;
+
+import com.greensphere.userservice.utils.TokenDigestUtil;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Size bounded cache of verified JWTs, keyed by the SHA-256 digest of the token. Each entry is an
+ * immutable snapshot of the user (username, email, status, state version and authorities), never
+ * the AppUser entity, so concurrent requests share nothing mutable. Entries expire at the token's
+ * exp claim (capped by jwt.cache.max-ttl-seconds), are evicted in least recently used order once
+ * jwt.cache.max-size is reached, and are indexed by username so a user's entries can be dropped
+ * without scanning the cache.
+ */
+@Component
+@Slf4j
+public class TokenAuthenticationCache {
+
+    private final Map<String, CachedAuthentication> entries;
+    private final Map<String, Set<String>> keysByUsername = new HashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private final long maxTtlMillis;
+
+    public TokenAuthenticationCache(@Value("${jwt.cache.max-size:10000}") int maxSize,
+                                    @Value("${jwt.cache.max-ttl-seconds:300}") long maxTtlSeconds) {
+        this.maxTtlMillis = maxTtlSeconds * 1000L;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedAuthentication> eldest) {
+                if (size() > maxSize) {
+                    evictions.increment();
+                    unindex(eldest.getKey(), eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public CachedAuthentication get(String token) {
+        String key = TokenDigestUtil.sha256Hex(token);
+        CachedAuthentication cached;
+        synchronized (entries) {
+            cached = entries.get(key);
+            if (cached != null && cached.getExpiresAt() <= System.currentTimeMillis()) {
+                remove(key);
+                cached = null;
+            }
+        }
+        if (cached == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return cached;
+    }
+
+    public void put(String token, CachedAuthentication authentication) {
+        long expiresAt = Math.min(authentication.getExpiresAt(), System.currentTimeMillis() + maxTtlMillis);
+        if (expiresAt <= System.currentTimeMillis()) {
+            return;
+        }
+        String key = TokenDigestUtil.sha256Hex(token);
+        CachedAuthentication cached = authentication.withExpiresAt(expiresAt);
+        synchronized (entries) {
+            CachedAuthentication previous = entries.put(key, cached);
+            if (previous != null) {
+                unindex(key, previous);
+            }
+            keysByUsername.computeIfAbsent(cached.getUsername(), u -> new HashSet<>()).add(key);
+        }
+    }
+
+    // called on logout so a revoked token stops authenticating immediately
+    public void invalidateToken(String token) {
+        String key = TokenDigestUtil.sha256Hex(token);
+        synchronized (entries) {
+            remove(key);
+        }
+    }
+
+    // called whenever a user's status or details change
+    public void invalidateUser(String username) {
+        if (username == null) {
+            return;
+        }
+        int removed = 0;
+        synchronized (entries) {
+            Set<String> keys = keysByUsername.remove(username);
+            if (keys != null) {
+                for (String key : keys) {
+                    if (entries.remove(key) != null) {
+                        removed++;
+                    }
+                }
+            }
+        }
+        log.info("invalidateUser-> removed {} cached token(s) for user: {}", removed, username);
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+            keysByUsername.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    // callers hold the entries lock
+    private void remove(String key) {
+        CachedAuthentication removed = entries.remove(key);
+        if (removed != null) {
+            unindex(key, removed);
+        }
+    }
+
+    private void unindex(String key, CachedAuthentication cached) {
+        Set<String> keys = keysByUsername.get(cached.getUsername());
+        if (keys != null) {
+            keys.remove(key);
+            if (keys.isEmpty()) {
+                keysByUsername.remove(cached.getUsername());
+            }
+        }
+    }
+
+    @Getter
+    public static class CachedAuthentication {
+        private final String username;
+        private final String email;
+        private final String status;
+        private final int stateVersion;
+        private final List<GrantedAuthority> authorities;
+        private final long expiresAt;
+
+        public CachedAuthentication(String username, String email, String status, int stateVersion,
+                                    List<GrantedAuthority> authorities, long expiresAt) {
+            this.username = username;
+            this.email = email;
+            this.status = status;
+            this.stateVersion = stateVersion;
+            this.authorities = List.copyOf(authorities);
+            this.expiresAt = expiresAt;
+        }
+
+        private CachedAuthentication withExpiresAt(long expiresAt) {
+            return new CachedAuthentication(username, email, status, stateVersion, authorities, expiresAt);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.greensphere.userservice.service;
+
+import com.greensphere.userservice.repository.TokenBlackListRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Deletes expired TokenBlackList rows off the request path, in bounded set-based batches
+ * so a large backlog never turns into one long-running statement.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class TokenBlackListPurgeService {
+
+    private final TokenBlackListRepository tokenBlackListRepository;
+
+    @Value("${token.blacklist.purge.batch-size:1000}")
+    private int batchSize;
+    @Value("${token.blacklist.purge.max-batches:100}")
+    private int maxBatches;
+
+    private final AtomicLong totalPurged = new AtomicLong();
+    private final AtomicLong lastPurged = new AtomicLong();
+    private final AtomicLong lastDurationMillis = new AtomicLong();
+
+    @Scheduled(fixedDelayString = "${token.blacklist.purge.interval-ms:300000}",
+            initialDelayString = "${token.blacklist.purge.interval-ms:300000}")
+    public void purgeExpired() {
+        long start = System.currentTimeMillis();
+        LocalDateTime now = LocalDateTime.now();
+        long purged = 0;
+        try {
+            for (int batch = 0; batch < maxBatches; batch++) {
+                int deleted = tokenBlackListRepository.deleteExpiredBatch(now, batchSize);
+                purged += deleted;
+                if (deleted < batchSize) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            log.error("purgeExpired-> Exception: {}", e.getMessage(), e);
+        }
+        long duration = System.currentTimeMillis() - start;
+        totalPurged.addAndGet(purged);
+        lastPurged.set(purged);
+        lastDurationMillis.set(duration);
+        log.info("purgeExpired-> purged {} expired blacklisted token(s) in {} ms", purged, duration);
+    }
+
+    public long getTotalPurged() {
+        return totalPurged.get();
+    }
+
+    public long getLastPurged() {
+        return lastPurged.get();
+    }
+
+    public long getLastDurationMillis() {
+        return lastDurationMillis.get();
+    }
+}
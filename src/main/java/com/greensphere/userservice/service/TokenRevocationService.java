@@ -0,0 +1,196 @@
+package com.greensphere.userservice.service;
+
+import com.greensphere.userservice.entity.TokenBlackList;
+import com.greensphere.userservice.repository.TokenBlackListRepository;
+import com.greensphere.userservice.repository.UserRepository;
+import com.greensphere.userservice.utils.BloomFilter;
+import com.greensphere.userservice.utils.TokenDigestUtil;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory view of TokenBlackList. A Bloom filter answers the common "not revoked" case
+ * without touching the exact digest set, and neither touches the database. The set is loaded
+ * in full at startup, updated on logout, and refreshed periodically with the rows written since
+ * the previous refresh, so expired entries are dropped and logouts handled by other nodes are
+ * picked up. Token validation uses findRevoked, which also asks the table about digests unknown
+ * here, so a logout on another node takes effect before the next refresh.
+ * <p>
+ * User state versions live on the user row (AppUser.stateVersion). Versions changed within the
+ * token lifetime are mirrored here and re-read every sync interval, so a lockout on any node
+ * rejects older tokens on every node. An entry is dropped once every token issued before the
+ * change has expired.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class TokenRevocationService {
+
+    private final TokenBlackListRepository tokenBlackListRepository;
+    private final UserRepository userRepository;
+
+    @Value("${token.revocation.expected-entries:100000}")
+    private int expectedEntries;
+    @Value("${token.revocation.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+    // the longest token lifetime; a state change older than this can no longer affect a token
+    @Value("${jwt.refresh.validity}")
+    private long tokenLifetimeSeconds;
+    // overlap between refreshes so a row committed just before the previous query is not missed
+    @Value("${token.revocation.reload-overlap-seconds:30}")
+    private long reloadOverlapSeconds;
+    @Value("${token.revocation.state-sync-overlap-seconds:30}")
+    private long stateSyncOverlapSeconds;
+    // one-off backfill of digests for rows written before they existed; enable for a single deployment
+    @Value("${token.revocation.migrate-legacy-tokens:false}")
+    private boolean migrateLegacyTokens;
+
+    private final Map<String, LocalDateTime> revokedTokens = new ConcurrentHashMap<>();
+    private final Map<String, StateVersion> userStateVersions = new ConcurrentHashMap<>();
+    private volatile BloomFilter bloomFilter;
+    private volatile LocalDateTime lastStateSync;
+    private volatile LocalDateTime lastReload;
+
+    @PostConstruct
+    public void init() {
+        if (migrateLegacyTokens) {
+            migrateLegacyTokens();
+        }
+        reload();
+        syncStateVersions();
+    }
+
+    // Rows written before digests were stored still hold the full token text; move them to the digest column
+    private void migrateLegacyTokens() {
+        int migrated = 0;
+        List<TokenBlackList> legacyTokens;
+        do {
+            legacyTokens = tokenBlackListRepository.findTop500ByTokenDigestIsNullAndExpiredTimeAfter(LocalDateTime.now());
+            legacyTokens.forEach(blackListed -> {
+                blackListed.setTokenDigest(TokenDigestUtil.sha256Hex(blackListed.getToken()));
+                blackListed.setToken(null);
+            });
+            tokenBlackListRepository.saveAll(legacyTokens);
+            migrated += legacyTokens.size();
+        } while (!legacyTokens.isEmpty());
+        log.info("TokenRevocationService-> migrated {} blacklisted token(s) to digests", migrated);
+    }
+
+    public boolean isRevoked(String token) {
+        byte[] digest = TokenDigestUtil.sha256(token);
+        if (!bloomFilter.mightContain(digest)) {
+            return false;
+        }
+        LocalDateTime expiredTime = revokedTokens.get(TokenDigestUtil.toHex(digest));
+        return expiredTime != null && expiredTime.isAfter(LocalDateTime.now());
+    }
+
+    // Checks memory first, then the table for logouts on other nodes that the last refresh has not picked up
+    public Set<String> findRevoked(Collection<String> digests) {
+        LocalDateTime now = LocalDateTime.now();
+        Set<String> revoked = new HashSet<>();
+        List<String> unknown = new ArrayList<>();
+        for (String digest : digests) {
+            LocalDateTime expiredTime = revokedTokens.get(digest);
+            if (expiredTime != null && expiredTime.isAfter(now)) {
+                revoked.add(digest);
+            } else {
+                unknown.add(digest);
+            }
+        }
+        if (!unknown.isEmpty()) {
+            revoked.addAll(tokenBlackListRepository.findRevokedDigests(unknown, now));
+        }
+        return revoked;
+    }
+
+    public boolean isRevokedOnAnyNode(String token) {
+        return !findRevoked(List.of(TokenDigestUtil.sha256Hex(token))).isEmpty();
+    }
+
+    // Tokens carry the user's state version ("sv"); records a bump made on this node without waiting for the sync
+    public void recordStateVersion(String username, int stateVersion) {
+        recordStateVersion(username, stateVersion, LocalDateTime.now());
+    }
+
+    private void recordStateVersion(String username, int stateVersion, LocalDateTime changedAt) {
+        userStateVersions.merge(username, new StateVersion(stateVersion, changedAt),
+                (current, update) -> update.version() > current.version() ? update : current);
+    }
+
+    public boolean isStale(String username, int stateVersion) {
+        StateVersion current = userStateVersions.get(username);
+        return current != null && stateVersion < current.version();
+    }
+
+    @Scheduled(fixedDelayString = "${token.revocation.state-sync-interval-ms:5000}",
+            initialDelayString = "${token.revocation.state-sync-interval-ms:5000}")
+    public void syncStateVersions() {
+        try {
+            LocalDateTime startedAt = LocalDateTime.now();
+            LocalDateTime retainedSince = startedAt.minusSeconds(tokenLifetimeSeconds);
+            LocalDateTime since = lastStateSync == null ? retainedSince : lastStateSync.minusSeconds(stateSyncOverlapSeconds);
+            userRepository.findStateVersionsUpdatedSince(since).forEach(changed ->
+                    recordStateVersion(changed.getUsername(), changed.getStateVersion(), changed.getUpdatedAt()));
+            userStateVersions.values().removeIf(version -> version.changedAt().isBefore(retainedSince));
+            lastStateSync = startedAt;
+        } catch (Exception e) {
+            log.error("TokenRevocationService-> state version sync failed: {}", e.getMessage(), e);
+        }
+    }
+
+    // Writers are serialized with rebuilds so a revocation can never miss the filter being swapped in
+    public synchronized void revoke(byte[] digest, LocalDateTime expiredTime) {
+        revokedTokens.put(TokenDigestUtil.toHex(digest), expiredTime);
+        bloomFilter.put(digest);
+    }
+
+    @Scheduled(fixedDelayString = "${token.revocation.refresh-interval-ms:60000}",
+            initialDelayString = "${token.revocation.refresh-interval-ms:60000}")
+    public void reload() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime since = lastReload;
+        // legacy rows have no createdAt and are only read by the full load at startup
+        List<TokenBlackList> activeTokens = since == null
+                ? tokenBlackListRepository.findAllByExpiredTimeAfter(now)
+                : tokenBlackListRepository.findAllByCreatedAtAfterAndExpiredTimeAfter(since.minusSeconds(reloadOverlapSeconds), now);
+        synchronized (this) {
+            revokedTokens.values().removeIf(expiredTime -> !expiredTime.isAfter(now));
+            activeTokens.forEach(blackListed ->
+                    revokedTokens.putIfAbsent(digestOf(blackListed), blackListed.getExpiredTime()));
+            rebuildFilter();
+        }
+        lastReload = now;
+        log.info("TokenRevocationService-> loaded {} blacklisted token(s), revoked tokens in memory: {}",
+                activeTokens.size(), revokedTokens.size());
+    }
+
+    // legacy rows that were not migrated are hashed in memory
+    private static String digestOf(TokenBlackList blackListed) {
+        return blackListed.getTokenDigest() != null
+                ? blackListed.getTokenDigest()
+                : TokenDigestUtil.sha256Hex(blackListed.getToken());
+    }
+
+    private void rebuildFilter() {
+        BloomFilter filter = new BloomFilter(Math.max(expectedEntries, revokedTokens.size() * 2), falsePositiveRate);
+        revokedTokens.keySet().forEach(hex -> filter.put(TokenDigestUtil.fromHex(hex)));
+        bloomFilter = filter;
+    }
+
+    private record StateVersion(int version, LocalDateTime changedAt) {
+    }
+}
@@ -4,21 +4,27 @@ import com.greensphere.userservice.dto.request.UpdateUserDetailsRequest;
 import com.greensphere.userservice.dto.request.logOutRequest.LogOutRequest;
 import com.greensphere.userservice.dto.request.userLogin.UserLoginRequest;
 import com.greensphere.userservice.dto.request.userRegister.GovUserRegisterRequest;
+import com.greensphere.userservice.dto.request.userRegister.ResendOtpRequest;
 import com.greensphere.userservice.dto.request.userRegister.SetUpDetailsRequest;
 import com.greensphere.userservice.dto.request.userRegister.UserRegisterRequestDto;
 import com.greensphere.userservice.dto.request.userRegister.UserRegisterVerifyRequest;
 import com.greensphere.userservice.dto.response.BaseResponse;
 import com.greensphere.userservice.dto.response.UpdateUserDetailsResponse;
+import com.greensphere.userservice.dto.response.tokenValidationResponse.BatchTokenValidationResponse;
 import com.greensphere.userservice.dto.response.tokenValidationResponse.UserAuthResponse;
 import com.greensphere.userservice.dto.response.userLoginResponse.UserLoginResponse;
 import com.greensphere.userservice.entity.AppUser;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
 
 import java.util.HashMap;
+import java.util.List;
 
 public interface UserService {
     BaseResponse<HashMap<String, Object>> registerInit(UserRegisterRequestDto registerInitRequest);
 
+    BaseResponse<HashMap<String, Object>> resendOtp(ResendOtpRequest resendOtpRequest);
+
     BaseResponse<HashMap<String, Object>> registerVerify(UserRegisterVerifyRequest userRegisterVerifyRequest);
 
     BaseResponse<HashMap<String, Object>> setUpDetails(SetUpDetailsRequest setUpDetailsRequest);
@@ -31,5 +37,10 @@ public interface UserService {
 
     BaseResponse<UserAuthResponse> tokenValidation(String token, HttpServletRequest httpServletRequest);
 
+    // details are read from the request up front, so this variant can run off the request thread
+    BaseResponse<UserAuthResponse> tokenValidation(String token, WebAuthenticationDetails authenticationDetails);
+
+    BaseResponse<BatchTokenValidationResponse> batchTokenValidation(List<String> tokens);
+
     BaseResponse<UpdateUserDetailsResponse> updateUserDetails(UpdateUserDetailsRequest updateUserDetailsRequest, AppUser appUser);
 }
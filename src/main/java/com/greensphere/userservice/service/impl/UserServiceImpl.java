@@ -1,7 +1,6 @@
 package com.greensphere.userservice.service.impl;
 
 import com.auth0.jwt.JWT;
-import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.*;
 import com.greensphere.userservice.constants.LogMessage;
 import com.greensphere.userservice.dto.request.UpdateUserDetailsRequest;
@@ -9,48 +8,66 @@ import com.greensphere.userservice.dto.request.logOutRequest.LogOutRequest;
 import com.greensphere.userservice.dto.request.tokenRequest.TokenRequest;
 import com.greensphere.userservice.dto.request.userLogin.UserLoginRequest;
 import com.greensphere.userservice.dto.request.userRegister.GovUserRegisterRequest;
+import com.greensphere.userservice.dto.request.userRegister.ResendOtpRequest;
 import com.greensphere.userservice.dto.request.userRegister.SetUpDetailsRequest;
 import com.greensphere.userservice.dto.request.userRegister.UserRegisterRequestDto;
 import com.greensphere.userservice.dto.request.userRegister.UserRegisterVerifyRequest;
 import com.greensphere.userservice.dto.response.BaseResponse;
 import com.greensphere.userservice.dto.response.OtpVerifyResponse;
 import com.greensphere.userservice.dto.response.UpdateUserDetailsResponse;
-import com.greensphere.userservice.dto.response.notificationServiceResponse.SmsResponse;
+import com.greensphere.userservice.dto.response.tokenValidationResponse.BatchTokenValidationResponse;
+import com.greensphere.userservice.dto.response.tokenValidationResponse.TokenVerdict;
 import com.greensphere.userservice.dto.response.tokenValidationResponse.UserAuthResponse;
 import com.greensphere.userservice.dto.response.tokenValidationResponse.UserResponse;
 import com.greensphere.userservice.dto.response.userLoginResponse.UserLoginResponse;
 import com.greensphere.userservice.dto.response.userLoginResponse.UserObj;
 import com.greensphere.userservice.entity.AppUser;
-import com.greensphere.userservice.entity.Parameter;
+import com.greensphere.userservice.entity.OtpChallenge;
 import com.greensphere.userservice.entity.Role;
 import com.greensphere.userservice.entity.TokenBlackList;
 import com.greensphere.userservice.enums.ResponseStatus;
 import com.greensphere.userservice.enums.Status;
-import com.greensphere.userservice.exceptions.MissingParameterException;
-import com.greensphere.userservice.repository.ParameterRepository;
+import com.greensphere.userservice.exceptions.HashingRejectedException;
 import com.greensphere.userservice.repository.TokenBlackListRepository;
 import com.greensphere.userservice.repository.UserRepository;
-import com.greensphere.userservice.service.ApiConnector;
 import com.greensphere.userservice.service.AuthUserDetailsService;
+import com.greensphere.userservice.service.LoginAttemptService;
+import com.greensphere.userservice.service.OtpChallengeStore;
+import com.greensphere.userservice.service.OtpResendThrottle;
+import com.greensphere.userservice.service.ParameterRegistry;
+import com.greensphere.userservice.service.RegisteredEmailIndex;
+import com.greensphere.userservice.service.PasswordService;
+import com.greensphere.userservice.service.RoleAuthorityRegistry;
+import com.greensphere.userservice.service.SmsOutboxService;
+import com.greensphere.userservice.service.TokenAuthenticationCache;
+import com.greensphere.userservice.service.TokenRevocationService;
 import com.greensphere.userservice.service.UserService;
 import com.greensphere.userservice.utils.*;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 import org.springframework.util.ObjectUtils;
 
+import java.security.MessageDigest;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 
 import static com.greensphere.userservice.enums.Status.*;
 
@@ -60,25 +77,28 @@ import static com.greensphere.userservice.enums.Status.*;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
-    private final ApiConnector apiConnector;
+    private final SmsOutboxService smsOutboxService;
     private final RoleServiceImpl roleService;
-    private final ParameterRepository parameterRepository;
+    private final ParameterRegistry parameterRegistry;
     private final JwtUtil jwtUtil;
     private final AuthenticationManager authenticationManager;
     private final TokenBlackListRepository tokenBlackListRepository;
     private final AuthUserDetailsService authUserDetailsService;
-
-    @Value("${jwt.secret}")
-    private String jwtSecret;
-
-    public void persistUser(AppUser appUser) {
-        try {
-            userRepository.save(appUser);
-        } catch (Exception e) {
-            log.error("persistUser-> Exception: {}", e.getMessage(), e);
-        }
-    }
-
+    private final TokenAuthenticationCache tokenAuthenticationCache;
+    private final JwtKeyRing jwtKeyRing;
+    private final TokenRevocationService tokenRevocationService;
+    private final RoleAuthorityRegistry roleAuthorityRegistry;
+    private final PasswordService passwordService;
+    private final LoginAttemptService loginAttemptService;
+    private final OtpChallengeStore otpChallengeStore;
+    private final RandomNumberGenerator randomNumberGenerator;
+    private final OtpResendThrottle otpResendThrottle;
+    private final RegisteredEmailIndex registeredEmailIndex;
+
+    @Value("${token.validation.batch.max-size:100}")
+    private int batchValidationMaxSize;
+
+    @Transactional
     public BaseResponse<HashMap<String, Object>> registerInit(UserRegisterRequestDto registerInitRequest) {
         try {
 
@@ -126,8 +146,7 @@ public class UserServiceImpl implements UserService {
                     Set<Role> objects = new HashSet<>();
                     objects.add(roleByName);
                     appUser.setRoles(objects);
-                    persistUser(appUser);
-                    log.info("registerInit -> govUser saved in INITIATED status, mobile: {}, email: {}, nic: {}, govId :{} ", mobile, email, nic, govId);
+                    log.info("registerInit -> govUser created in INITIATED status, mobile: {}, email: {}, nic: {}, govId :{} ", mobile, email, nic, govId);
 
                 } else {
                     appUser = AppUser.builder()
@@ -139,39 +158,30 @@ public class UserServiceImpl implements UserService {
                     Set<Role> objects = new HashSet<>();
                     objects.add(roleByName);
                     appUser.setRoles(objects);
-                    persistUser(appUser);
-                    log.info("registerInit -> appUser saved in INITIATED status, mobile: {}, email: {}, nic: {}", mobile, email, nic);
+                    log.info("registerInit -> appUser created in INITIATED status, mobile: {}, email: {}, nic: {}", mobile, email, nic);
 
                 }
             }
-            Parameter otpLengthParameter = parameterRepository.findParameterByName(AppConstants.OTP_LENGTH);
-            if (otpLengthParameter == null) {
-                log.warn("registerInit -> OTP_LENGTH parameter is missing from database");
-                throw new MissingParameterException("OTP_LENGTH parameter is missing from database, Please add missing OTP_LENGTH parameter");
+            // repeating register-init for a pending user re-sends the code, so it shares the resend limits
+            long retryAfterSeconds = otpResendThrottle.tryAcquire(appUser.getUsername());
+            if (retryAfterSeconds > 0) {
+                log.info("registerInit -> otp send throttled for user: {}, retry after {}s", appUser.getUsername(), retryAfterSeconds);
+                return otpThrottledResponse(retryAfterSeconds);
             }
 
-            Parameter otpMessageParameter = parameterRepository.findParameterByName(AppConstants.OTP_MESSAGE);
-            if (otpMessageParameter == null) {
-                log.warn("registerInit -> OTP_MESSAGE parameter is missing from database");
-                throw new MissingParameterException("OTP_MESSAGE parameter is missing from database, Please add missing OTP_MESSAGE parameter");
+            // the user row is only written when it is new or changes status, the code itself lives in the challenge store
+            if (appUser.getId() == null || !PENDING.name().equals(appUser.getStatus())) {
+                appUser.setStatus(PENDING.name());
+                // flushed here so a concurrent update rolls back through the catch below
+                userRepository.saveAndFlush(appUser);
+                registeredEmailIndex.add(email);
             }
-            String otp = RandomNumberGenerator.createRandomReference(Integer.parseInt(otpLengthParameter.getValue()));
-            String otpMessage = otpMessageParameter.getValue().replace("<otp>", otp);
-
-            //API CALL NOTIFICATION SERVICE ->
-            log.info("registerInit -> sending registration otp to user");
-            SmsResponse smsResponse = apiConnector.sendSms(mobile, otpMessage);
-            String otpStatus = smsResponse.getCode().equals(ResponseCodeUtil.SUCCESS_CODE) ? SENT.name() : FAILED.name();
-            appUser.setOtp(otp);
-            appUser.setOtpStatus(otpStatus);
-            appUser.setOtpAttempts(appUser.getOtpAttempts() + 1);
-            appUser.setOtpSentAt(LocalDateTime.now());
 
-            appUser.setStatus(PENDING.name());
-            persistUser(appUser);
+            String challengeId = issueOtp(appUser, mobile, parameterRegistry.get().getOtpMessage());
 
             HashMap<String, Object> data = new HashMap<>();
             data.put("app_user_id", appUser.getUsername());
+            data.put("challenge_id", challengeId);
             data.put("mobile", mobile);
             data.put("gov_id", appUser.getGovId());
             data.put("user_role", appUser.getRoles());
@@ -184,6 +194,7 @@ public class UserServiceImpl implements UserService {
                     .build();
         } catch (Exception e) {
             log.error("registerInit -> Exception : {}", e.getMessage(), e);
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             return BaseResponse.<HashMap<String, Object>>builder()
                     .code(ResponseCodeUtil.INTERNAL_SERVER_ERROR_CODE)
                     .title(ResponseUtil.INTERNAL_SERVER_ERROR)
@@ -192,20 +203,92 @@ public class UserServiceImpl implements UserService {
         }
     }
 
-    public BaseResponse<HashMap<String, Object>> registerVerify(UserRegisterVerifyRequest userRegisterVerifyRequest) {
+    @Transactional
+    public BaseResponse<HashMap<String, Object>> resendOtp(ResendOtpRequest resendOtpRequest) {
         try {
-            AppUser user = userRepository.findAppUserByUsername(userRegisterVerifyRequest.getUsername());
-            if (user == null) {
-                log.warn("registerVerify -> user not found for this username: {}", userRegisterVerifyRequest.getUsername());
+            String username = resendOtpRequest.getUsername();
+            // only pending registrations get a throttle entry, so unknown usernames cannot fill it
+            AppUser appUser = userRepository.findAppUserByUsername(username);
+            if (appUser == null || !PENDING.name().equals(appUser.getStatus())) {
+                log.warn("resendOtp -> no pending registration for username: {}", username);
                 return BaseResponse.<HashMap<String, Object>>builder()
                         .code(ResponseCodeUtil.FAILED_CODE)
                         .title(ResponseUtil.FAILED)
-                        .message("Cannot find the AppUser")
+                        .message("Cannot find a pending registration for this user")
                         .build();
             }
 
-            BaseResponse<OtpVerifyResponse> otpVerificationResponse = verifyOtp(user, userRegisterVerifyRequest.getOtp());
+            long retryAfterSeconds = otpResendThrottle.tryAcquire(username);
+            if (retryAfterSeconds > 0) {
+                log.info("resendOtp -> resend throttled for user: {}, retry after {}s", username, retryAfterSeconds);
+                return otpThrottledResponse(retryAfterSeconds);
+            }
 
+            if (resendOtpRequest.getChallengeId() != null) {
+                OtpChallenge previous = otpChallengeStore.find(resendOtpRequest.getChallengeId());
+                if (previous != null && previous.getUsername().equals(username)) {
+                    otpChallengeStore.consume(previous.getChallengeId());
+                }
+            }
+
+            String challengeId = issueOtp(appUser, appUser.getMobile(), parameterRegistry.get().getResendOtpMessage());
+
+            HashMap<String, Object> data = new HashMap<>();
+            data.put("app_user_id", appUser.getUsername());
+            data.put("challenge_id", challengeId);
+            data.put("mobile", appUser.getMobile());
+            return BaseResponse.<HashMap<String, Object>>builder()
+                    .code(ResponseCodeUtil.SUCCESS_CODE)
+                    .title(ResponseUtil.SUCCESS)
+                    .message("Otp sent successfully")
+                    .data(data)
+                    .build();
+        } catch (Exception e) {
+            log.error("resendOtp -> Exception : {}", e.getMessage(), e);
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return BaseResponse.<HashMap<String, Object>>builder()
+                    .code(ResponseCodeUtil.INTERNAL_SERVER_ERROR_CODE)
+                    .title(ResponseUtil.INTERNAL_SERVER_ERROR)
+                    .message("Error occurred while resending otp")
+                    .build();
+        }
+    }
+
+    private BaseResponse<HashMap<String, Object>> otpThrottledResponse(long retryAfterSeconds) {
+        HashMap<String, Object> data = new HashMap<>();
+        data.put("retry_after", retryAfterSeconds);
+        return BaseResponse.<HashMap<String, Object>>builder()
+                .code(ResponseCodeUtil.OTP_RESEND_THROTTLED_ERROR_CODE)
+                .title(ResponseUtil.FAILED)
+                .message("Please wait before requesting another OTP.")
+                .data(data)
+                .build();
+    }
+
+    // Stores a new challenge and queues the code in the caller's transaction, SmsOutboxDispatcher delivers it
+    private String issueOtp(AppUser appUser, String mobile, ParameterRegistry.MessageTemplate messageTemplate) {
+        ParameterRegistry.Snapshot parameters = parameterRegistry.get();
+        String otp = randomNumberGenerator.createRandomReference(parameters.getOtpLength());
+        String challengeId = UUID.randomUUID().toString();
+        otpChallengeStore.save(OtpChallenge.builder()
+                .challengeId(challengeId)
+                .username(appUser.getUsername())
+                .otpDigest(OtpChallengeStore.digest(challengeId, otp))
+                .expiresAt(LocalDateTime.now().plusSeconds(parameters.getOtpExpiredTime()))
+                .maxAttempts(parameters.getOtpVerifyAttempts())
+                .build());
+
+        log.info("issueOtp -> queueing otp for user: {}", appUser.getUsername());
+        smsOutboxService.enqueueOtp(appUser.getUsername(), mobile, messageTemplate.render(otp));
+        return challengeId;
+    }
+
+    @Transactional
+    public BaseResponse<HashMap<String, Object>> registerVerify(UserRegisterVerifyRequest userRegisterVerifyRequest) {
+        try {
+            String username = userRegisterVerifyRequest.getUsername();
+            BaseResponse<OtpVerifyResponse> otpVerificationResponse =
+                    verifyOtp(userRegisterVerifyRequest.getChallengeId(), username, userRegisterVerifyRequest.getOtp());
 
             if (!otpVerificationResponse.getCode().equals(ResponseCodeUtil.SUCCESS_CODE)) {
                 log.warn("registerVerify -> OTP verification failed: {}", otpVerificationResponse.getCode());
@@ -215,6 +298,22 @@ public class UserServiceImpl implements UserService {
                         .message(otpVerificationResponse.getMessage())
                         .build();
             }
+
+            // the user row is read and written only once the code has been redeemed
+            AppUser user = userRepository.findAppUserByUsername(username);
+            if (user == null) {
+                log.warn("registerVerify -> user not found for this username: {}", username);
+                TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+                return BaseResponse.<HashMap<String, Object>>builder()
+                        .code(ResponseCodeUtil.FAILED_CODE)
+                        .title(ResponseUtil.FAILED)
+                        .message("Cannot find the AppUser")
+                        .build();
+            }
+            user.setStatus(VERIFIED.name());
+            userRepository.saveAndFlush(user);
+            tokenAuthenticationCache.invalidateUser(user.getUsername());
+
             log.info("registerVerify -> user verified: {}", user.getUsername());
             HashMap<String, Object> data = new HashMap<>();
             data.put("user_id", user.getUsername());
@@ -228,8 +327,18 @@ public class UserServiceImpl implements UserService {
                     .data(data)
                     .build();
 
+        } catch (ObjectOptimisticLockingFailureException e) {
+            // the user was changed concurrently; rolling back also restores a table-backed challenge
+            log.warn("registerVerify -> concurrent update for user: {}", userRegisterVerifyRequest.getUsername());
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return BaseResponse.<HashMap<String, Object>>builder()
+                    .code(ResponseCodeUtil.OTP_VERIFICATION_FAILED_ERROR_CODE)
+                    .title(ResponseUtil.FAILED)
+                    .message("Otp verification is already in progress, please try again.")
+                    .build();
         } catch (Exception e) {
             log.error("registerVerify -> Exception : {}", e.getMessage(), e);
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             return BaseResponse.<HashMap<String, Object>>builder()
                     .code(ResponseCodeUtil.INTERNAL_SERVER_ERROR_CODE)
                     .title(ResponseUtil.INTERNAL_SERVER_ERROR)
@@ -240,7 +349,7 @@ public class UserServiceImpl implements UserService {
 
     public BaseResponse<HashMap<String, Object>> setUpDetails(SetUpDetailsRequest setUpDetailsRequest) {
         try {
-            AppUser user = userRepository.findAppUserByUsername(setUpDetailsRequest.getUsername());
+            AppUser user = userRepository.findWithRolesByUsername(setUpDetailsRequest.getUsername());
             if (user == null) {
                 log.warn("setUpDetails-> Cannot find user for this username: {}", setUpDetailsRequest.getUsername());
                 return BaseResponse.<HashMap<String, Object>>builder()
@@ -250,7 +359,7 @@ public class UserServiceImpl implements UserService {
                         .build();
             }
             // create user authentication tokens for other requests
-            List<Role> roles = (List<Role>) user.getRoles();
+            Set<Role> roles = user.getRoles();
             if (roles.isEmpty()) {
                 log.warn("saveUserCredentials-> user doesn't have any roles");
                 return BaseResponse.<HashMap<String, Object>>builder()
@@ -270,7 +379,10 @@ public class UserServiceImpl implements UserService {
             }
             TokenRequest tokenRequest = TokenRequest.builder()
                     .username(user.getUsername())
+                    .email(user.getEmail())
                     .role(role.getName())
+                    .authorities(getAuthorities(user))
+                    .stateVersion(user.getStateVersion())
                     .build();
             String token = jwtUtil.createJwtToken(tokenRequest);
             String refreshToken = jwtUtil.createRefreshToken(tokenRequest);
@@ -282,11 +394,11 @@ public class UserServiceImpl implements UserService {
             user.setCity(setUpDetailsRequest.getCity());
             user.setStatus(SAVED.name());
             user.setDob(setUpDetailsRequest.getBirthOfDate());
-            user.setPassword(setUpDetailsRequest.getPassword());
+            user.setPassword(passwordService.encode(setUpDetailsRequest.getPassword()));
             user.setPostalCode(setUpDetailsRequest.getPostalCode());
             user.setRegisteredAt(LocalDateTime.now());
-            user.setRegisteredAt(LocalDateTime.now());
-            persistUser(user);
+            userRepository.save(user);
+            tokenAuthenticationCache.invalidateUser(user.getUsername());
             log.info("setUpDetails-> User password setup details");
 
 
@@ -310,6 +422,9 @@ public class UserServiceImpl implements UserService {
                     .message("User details setup successful")
                     .data(data)
                     .build();
+        } catch (HashingRejectedException e) {
+            // surfaced as 503 with Retry-After by GlobalExceptionHandler
+            throw e;
         } catch (Exception e) {
             log.error("setUpDetails -> Exception : {}", e.getMessage(), e);
             return BaseResponse.<HashMap<String, Object>>builder()
@@ -320,32 +435,22 @@ public class UserServiceImpl implements UserService {
         }
     }
 
-    public BaseResponse<OtpVerifyResponse> verifyOtp(AppUser appUser, String otp) throws MissingParameterException {
+    public BaseResponse<OtpVerifyResponse> verifyOtp(String challengeId, String username, String otp) {
         try {
-            Parameter expiredTimeParameter = parameterRepository.findParameterByName(AppConstants.OTP_EXPIRED_TIME);
-            if (expiredTimeParameter == null) {
-                log.warn("verifyOtp -> OTP_EXPIRED_TIME parameter is missing from database");
-                throw new MissingParameterException("OTP_EXPIRED_TIME parameter is missing from database, Please add missing OTP_EXPIRED_TIME parameter");
-            }
-
-            Parameter verifyOtpAttemptsParameter = parameterRepository.findParameterByName(AppConstants.OTP_VERIFY_ATTEMPTS);
-            if (verifyOtpAttemptsParameter == null) {
-                log.warn("verifyOtp -> OTP_VERIFY_ATTEMPTS parameter is missing from database");
-                throw new MissingParameterException("OTP_EXPIRED_TIME parameter is missing from database, Please add missing OTP_VERIFY_ATTEMPTS parameter");
-            }
-
-            long expiredTime = Long.parseLong(expiredTimeParameter.getValue());
-            int verifyOtpAttempts = Integer.parseInt(verifyOtpAttemptsParameter.getValue());
-
-            if (!appUser.getOtpStatus().equals(SENT.name())) {
-                log.warn("verifyOtp -> already verified otp");
+            // single lookup; expired challenges are never returned
+            OtpChallenge challenge = challengeId == null ? null : otpChallengeStore.find(challengeId);
+            if (challenge == null || !challenge.getUsername().equals(username)) {
+                log.info("verifyOtp-> Otp challenge not found or expired");
                 return BaseResponse.<OtpVerifyResponse>builder()
-                        .code(ResponseCodeUtil.FAILED_CODE)
-                        .message("Already verified otp")
+                        .code(ResponseCodeUtil.OTP_EXPIRED)
+                        .title(ResponseUtil.FAILED)
+                        .message("OTP has expired. Please resend new OTP.")
                         .build();
             }
 
-            if (appUser.getVerifyAttempts() >= verifyOtpAttempts) {
+            // the attempt is counted before the code is compared, so concurrent guesses cannot pass the limit
+            int previousAttempts = challenge.getAttempts();
+            if (!otpChallengeStore.tryRecordAttempt(challengeId)) {
                 log.warn("verifyOtp -> otp verification attempts exceeded");
                 return BaseResponse.<OtpVerifyResponse>builder()
                         .code(ResponseCodeUtil.OTP_ATTEMPTS_EXCEED_ERROR_CODE)
@@ -354,48 +459,35 @@ public class UserServiceImpl implements UserService {
                         .build();
             }
 
-            LocalDateTime otpSentTime = appUser.getOtpSentAt();
-            LocalDateTime otpExpiredTime = otpSentTime.plusSeconds(expiredTime);
-
-            if (LocalDateTime.now().isAfter(otpExpiredTime)) {
-                log.info("verifyOtp-> Otp expired");
-                return BaseResponse.<OtpVerifyResponse>builder()
-                        .code(ResponseCodeUtil.OTP_EXPIRED)
-                        .title(ResponseUtil.FAILED)
-                        .message("OTP has expired. Please resend new OTP.")
-                        .build();
-            }
-
-            boolean matches = otp.equals(appUser.getOtp());
+            boolean matches = otp != null && MessageDigest.isEqual(challenge.getOtpDigest(), OtpChallengeStore.digest(challengeId, otp));
             if (matches) {
-                appUser.setOtpStatus(VERIFIED.name());
-                appUser.setStatus(VERIFIED.name());
-                appUser.setOtpAttempts(0);
-                appUser.setVerifyAttempts(0);
-                persistUser(appUser);
+                if (!otpChallengeStore.consume(challengeId)) {
+                    log.warn("verifyOtp -> already verified otp");
+                    return BaseResponse.<OtpVerifyResponse>builder()
+                            .code(ResponseCodeUtil.FAILED_CODE)
+                            .title(ResponseUtil.FAILED)
+                            .message("Already verified otp")
+                            .build();
+                }
                 log.info("verifyOtp -> Otp verified");
                 return BaseResponse.<OtpVerifyResponse>builder()
                         .code(ResponseCodeUtil.SUCCESS_CODE)
                         .title(ResponseUtil.SUCCESS)
                         .message("Otp verified")
                         .build();
-            } else {
-                appUser.setVerifyAttempts(appUser.getVerifyAttempts() + 1);
-                persistUser(appUser);
-                int remainingAttempts = 3 - appUser.getVerifyAttempts();
-                log.info("verifyOtp -> otp verification failed, remaining attempts : {}", remainingAttempts);
-
-                return BaseResponse.<OtpVerifyResponse>builder()
-                        .code(ResponseCodeUtil.INVALID_OTP_ERROR_CODE)
-                        .title(ResponseUtil.FAILED)
-                        .message(remainingAttempts == 0 ? "User attempts are over" : ("Please retype your OTP. You have " + remainingAttempts + " " + (remainingAttempts == 1 ? "attempt" : "attempts") + " left"))
-                        .build();
             }
+
+            // based on the count read above, concurrent attempts may make it slightly optimistic
+            int remainingAttempts = Math.max(0, challenge.getMaxAttempts() - previousAttempts - 1);
+            log.info("verifyOtp -> otp verification failed, remaining attempts : {}", remainingAttempts);
+
+            return BaseResponse.<OtpVerifyResponse>builder()
+                    .code(ResponseCodeUtil.INVALID_OTP_ERROR_CODE)
+                    .title(ResponseUtil.FAILED)
+                    .message(remainingAttempts == 0 ? "User attempts are over" : ("Please retype your OTP. You have " + remainingAttempts + " " + (remainingAttempts == 1 ? "attempt" : "attempts") + " left"))
+                    .build();
         } catch (Exception e) {
             log.error("verifyOtp -> Exception : {}", e.getMessage(), e);
-            if (e instanceof MissingParameterException) {
-                throw new MissingParameterException(e.getMessage());
-            }
             return BaseResponse.<OtpVerifyResponse>builder()
                     .code(ResponseCodeUtil.INTERNAL_SERVER_ERROR_CODE)
                     .message("Error occurred while verifying otp")
@@ -405,7 +497,7 @@ public class UserServiceImpl implements UserService {
 
     public BaseResponse<HashMap<String, Object>> govUserSignUp(GovUserRegisterRequest govUserRegisterRequest) {
         try {
-            AppUser user = userRepository.findAppUserByUsername(govUserRegisterRequest.getUsername());
+            AppUser user = userRepository.findWithRolesByUsername(govUserRegisterRequest.getUsername());
             if (user == null) {
                 log.warn("setUpDetails -> Cannot find user for this username: {}", govUserRegisterRequest.getUsername());
                 return BaseResponse.<HashMap<String, Object>>builder()
@@ -415,7 +507,7 @@ public class UserServiceImpl implements UserService {
                         .build();
             }
             // create user authentication tokens for other requests
-            List<Role> roles = (List<Role>) user.getRoles();
+            Set<Role> roles = user.getRoles();
             if (roles.isEmpty()) {
                 log.warn("saveUserCredentials-> user doesn't have any roles");
                 return BaseResponse.<HashMap<String, Object>>builder()
@@ -437,6 +529,9 @@ public class UserServiceImpl implements UserService {
             TokenRequest tokenRequest = TokenRequest.builder()
                     .role(role.getName())
                     .username(govUserRegisterRequest.getUsername())
+                    .email(user.getEmail())
+                    .authorities(getAuthorities(user))
+                    .stateVersion(user.getStateVersion())
                     .now(LocalDateTime.now())
                     .build();
 
@@ -444,10 +539,11 @@ public class UserServiceImpl implements UserService {
             String refreshToken = jwtUtil.createRefreshToken(tokenRequest);
             user.setStatus(SAVED.name());
             user.setRegisteredAt(LocalDateTime.now());
-            user.setPassword(govUserRegisterRequest.getPassword());
+            user.setPassword(passwordService.encode(govUserRegisterRequest.getPassword()));
             user.setCity(govUserRegisterRequest.getCity());
             user.setFullName(govUserRegisterRequest.getName());
-            persistUser(user);
+            userRepository.save(user);
+            tokenAuthenticationCache.invalidateUser(user.getUsername());
 
             HashMap<String, Object> userObj = new HashMap<>();
             userObj.put("full_name", user.getFullName());
@@ -469,6 +565,8 @@ public class UserServiceImpl implements UserService {
                     .data(data)
                     .build();
 
+        } catch (HashingRejectedException e) {
+            throw e;
         } catch (Exception e) {
             log.error("govUserSignUp -> Exception : {}", e.getMessage(), e);
             return BaseResponse.<HashMap<String, Object>>builder()
@@ -482,10 +580,14 @@ public class UserServiceImpl implements UserService {
     public BaseResponse<UserLoginResponse> login(UserLoginRequest loginRequest) {
         try {
             String password = loginRequest.getPassword();
-            AppUser loginUser = userRepository.findAppUserByEmail(loginRequest.getEmail());
+            // unknown emails are answered from the index; hashing a dummy keeps the timing of a real check
+            AppUser loginUser = registeredEmailIndex.mightBeRegistered(loginRequest.getEmail())
+                    ? userRepository.findAppUserByEmail(loginRequest.getEmail())
+                    : null;
 
             if (loginUser == null) {
                 log.warn("There is No user Found -> {}", loginRequest.getEmail());
+                passwordService.matchesDummy(password);
                 return BaseResponse.<UserLoginResponse>builder()
                         .code(ResponseCodeUtil.FAILED_CODE)
                         .title(ResponseUtil.FAILED)
@@ -495,6 +597,8 @@ public class UserServiceImpl implements UserService {
 
             return logUser(loginRequest, password, loginUser);
 
+        } catch (HashingRejectedException e) {
+            throw e;
         } catch (Exception e) {
             log.error("govUserSignUp -> Exception : {}", e.getMessage(), e);
             return BaseResponse.<UserLoginResponse>builder()
@@ -506,80 +610,62 @@ public class UserServiceImpl implements UserService {
     }
 
     private BaseResponse<UserLoginResponse> logUser(UserLoginRequest loginRequest, String password, AppUser loginUser) {
-        if (ACTIVE.name().equals(loginUser.getStatus())) {
-            try {
-                authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(loginRequest.getEmail(), password));
-                loginUser.setLoginAttempts(0);
-                persistUser(loginUser);
-
-            } catch (BadCredentialsException e) {
-                int remainingAttempts = 0;
-                log.info("login -> Invalid credentials, user login attempts: {}", loginUser.getLoginAttempts());
-
-                Parameter parameter = parameterRepository.findParameterByName(AppConstants.LOGIN_ATTEMPTS);
-                if (parameter == null) {
-                    log.warn("login -> Missing Parameter -> " + AppConstants.LOGIN_ATTEMPTS);
-                    throw new MissingParameterException("Parameter not found for given name: " + AppConstants.LOGIN_ATTEMPTS);
-                }
+        if (!ACTIVE.name().equals(loginUser.getStatus())) {
+            return disabledUserResponse();
+        }
+        try {
+            authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(loginRequest.getEmail(), password));
+            // targeted updates only when something changed, instead of saving the whole row on every login
+            if (loginUser.getLoginAttempts() != 0) {
+                userRepository.resetLoginAttempts(loginUser.getUsername());
+            }
+            if (passwordService.rehashIfNeeded(loginUser, password)) {
+                userRepository.updatePassword(loginUser.getUsername(), loginUser.getPassword());
+            }
 
-                int attempts = Integer.parseInt(parameter.getValue());
-
-                if (loginUser.getLoginAttempts() < attempts) {
-                    log.info("login -> remaining login attempts: {}", loginUser.getLoginAttempts());
-                    loginUser.setLoginAttempts(loginUser.getLoginAttempts() + 1);
-                    persistUser(loginUser);
-
-                    remainingAttempts = attempts - loginUser.getLoginAttempts();
-                    if (remainingAttempts < 1) {
-                        loginUser.setStatus(DISABLED.name());
-                        loginUser.setDisabledReason(AppConstants.LOGIN_ATTEMPTS_EXCEEDED);
-                        persistUser(loginUser);
-                        log.info("User {} has been disabled due to exceeded login attempts.", loginUser.getUsername());
-
-                        //send login attempts exceeded sms
-                        Parameter smsExceeded = parameterRepository.findParameterByName(AppConstants.LOGIN_ATTEMPTS_EXCEEDED_MESSAGE);
-                        if (smsExceeded == null) {
-                            log.warn("login -> Missing Parameter -> " + AppConstants.LOGIN_ATTEMPTS_EXCEEDED_MESSAGE);
-                            throw new MissingParameterException("Parameter not found for given name: " + AppConstants.LOGIN_ATTEMPTS_EXCEEDED_MESSAGE);
-                        }
-
-
-                        log.info("Sending login attempts exceeded message to user {}.", loginUser.getUsername());
-                        String value = smsExceeded.getValue();
-                        String mobile = loginUser.getMobile();
-                        SmsResponse sms = apiConnector.sendSms(mobile, value);
-                        if (!ResponseCodeUtil.SUCCESS_CODE.equals(sms.getCode())) {
-                            log.error("Failed to send message to user {} at mobile number {}.", loginUser.getUsername(), loginUser.getMobile());
-                        }
-
-                        log.error("loguser -> login attempts exceeded");
-                        return BaseResponse.<UserLoginResponse>builder()
-                                .code(ResponseCodeUtil.OTP_ATTEMPTS_EXCEED_ERROR_CODE)
-                                .title(ResponseUtil.FAILED)
-                                .message("Login attempts exceeded.Please contact the Bank")
-                                .build();
-                    } else {
-                        log.error("loguser -> attempted failed. You have : {}", remainingAttempts);
-                        return BaseResponse.<UserLoginResponse>builder()
-                                .code(ResponseCodeUtil.FAILED_CODE)
-                                .title(ResponseUtil.FAILED)
-                                .message("Login attempted failed. You have " + remainingAttempts + " more attempts.")
-                                .build();
-                    }
-                }
+        } catch (BadCredentialsException e) {
+            int attempts = parameterRegistry.get().getLoginAttempts();
+            AppUser state = loginAttemptService.recordFailedLogin(
+                    loginUser.getUsername(), attempts, AppConstants.LOGIN_ATTEMPTS_EXCEEDED);
+            if (state == null) {
+                // another request locked the user between the lookup and this update
+                return disabledUserResponse();
+            }
+            log.info("login -> Invalid credentials, user login attempts: {}", state.getLoginAttempts());
+
+            if (DISABLED.name().equals(state.getStatus())) {
+                tokenAuthenticationCache.invalidateUser(loginUser.getUsername());
+                tokenRevocationService.recordStateVersion(loginUser.getUsername(), state.getStateVersion());
+                log.info("User {} has been disabled due to exceeded login attempts.", loginUser.getUsername());
+
+                //send login attempts exceeded sms
+                log.info("Sending login attempts exceeded message to user {}.", loginUser.getUsername());
+                String value = parameterRegistry.get().getLoginAttemptsExceededMessage();
+                smsOutboxService.enqueueNotification(loginUser.getMobile(), value);
+
+                log.error("loguser -> login attempts exceeded");
+                return BaseResponse.<UserLoginResponse>builder()
+                        .code(ResponseCodeUtil.OTP_ATTEMPTS_EXCEED_ERROR_CODE)
+                        .title(ResponseUtil.FAILED)
+                        .message("Login attempts exceeded.Please contact the Bank")
+                        .build();
             }
-        } else {
-            log.info("logUser -> Disabled user");
+
+            int remainingAttempts = attempts - state.getLoginAttempts();
+            log.error("loguser -> attempted failed. You have : {}", remainingAttempts);
             return BaseResponse.<UserLoginResponse>builder()
-                    .code(ResponseCodeUtil.DISABLE_USER_ERROR_CODE)
+                    .code(ResponseCodeUtil.FAILED_CODE)
                     .title(ResponseUtil.FAILED)
-                    .message("User is not Active. Please contact the Support Center")
+                    .message("Login attempted failed. You have " + remainingAttempts + " more attempts.")
                     .build();
         }
 
         TokenRequest tokenRequest = TokenRequest.builder()
                 .role(loginRequest.getRoleType())
                 .username(loginUser.getUsername())
+                .email(loginUser.getEmail())
+                .authorities(getAuthorities(loginUser))
+                .stateVersion(loginUser.getStateVersion())
                 .now(LocalDateTime.now())
                 .build();
 
@@ -607,21 +693,27 @@ public class UserServiceImpl implements UserService {
                 .build();
     }
 
+    private BaseResponse<UserLoginResponse> disabledUserResponse() {
+        log.info("logUser -> Disabled user");
+        return BaseResponse.<UserLoginResponse>builder()
+                .code(ResponseCodeUtil.DISABLE_USER_ERROR_CODE)
+                .title(ResponseUtil.FAILED)
+                .message("User is not Active. Please contact the Support Center")
+                .build();
+    }
+
     public BaseResponse<?> logOut(LogOutRequest logOutRequest) {
         try {
-            List<TokenBlackList> blacklistTokens = tokenBlackListRepository.findAll();
-            log.info("signOutUser-> Delete Expired tokens from DB");
-            blacklistTokens.stream()
-                    .filter(token -> token.getExpiredTime().isBefore(LocalDateTime.now()))
-                    .forEach(tokenBlackListRepository::delete);
-
             LocalDateTime expiredAt = DateUtil.convertDateToLocalDateTime(JWT.decode(logOutRequest.getToken()).getExpiresAt());
 
+            byte[] tokenDigest = TokenDigestUtil.sha256(logOutRequest.getToken());
             TokenBlackList blacklistToken = new TokenBlackList();
-            blacklistToken.setToken(logOutRequest.getToken());
+            blacklistToken.setTokenDigest(TokenDigestUtil.toHex(tokenDigest));
             blacklistToken.setExpiredTime(expiredAt);
 
             tokenBlackListRepository.save(blacklistToken);
+            tokenRevocationService.revoke(tokenDigest, expiredAt);
+            tokenAuthenticationCache.invalidateToken(logOutRequest.getToken());
 
             log.info("User log out  successfully ");
             return BaseResponse.builder()
@@ -643,12 +735,17 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public BaseResponse<UserAuthResponse> tokenValidation(String token, HttpServletRequest httpServletRequest) {
+        return tokenValidation(token, new WebAuthenticationDetailsSource().buildDetails(httpServletRequest));
+    }
+
+    @Override
+    public BaseResponse<UserAuthResponse> tokenValidation(String token, WebAuthenticationDetails authenticationDetails) {
         UserAuthResponse userAuthResponse = null;
         UserResponse userResponse = null;
 
         try {
-            boolean existsByToken = tokenBlackListRepository.existsByToken(token);
-            if (existsByToken) {
+            boolean revoked = token != null && tokenRevocationService.isRevokedOnAnyNode(token);
+            if (revoked) {
                 return BaseResponse.<UserAuthResponse>builder()
                         .code(ResponseCodeUtil.CANNOT_FIND_USER)
                         .title(ResponseStatus.FAILED.name())
@@ -657,19 +754,11 @@ public class UserServiceImpl implements UserService {
             }
             if (token != null) {
                 log.info("Token parsing started");
-                String username = JWT.require(Algorithm.HMAC512(jwtSecret.getBytes()))
-                        .build()
-                        .verify(token)
-                        .getSubject();
+                String username = jwtKeyRing.verify(token).getSubject();
 
                 if (username != null) {
                     log.info("Username extracted from token: {}", username);
                     AppUser user = userRepository.findAppUserByUsername(username);
-                    UserDetails userDetails = authUserDetailsService.loadUserByUsername(user.getEmail());
-                    UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(userDetails,
-                            null, userDetails.getAuthorities());
-                    authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(httpServletRequest));
-
                     if (ObjectUtils.isEmpty(user)) {
                         log.warn("User not found for username: {}", username);
                         log.warn(LogMessage.CAN_NOT_FIND_USER);
@@ -680,6 +769,11 @@ public class UserServiceImpl implements UserService {
                                 .build();
                     }
 
+                    UserDetails userDetails = authUserDetailsService.loadUserByUsername(user.getEmail());
+                    UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(userDetails,
+                            null, userDetails.getAuthorities());
+                    authenticationToken.setDetails(authenticationDetails);
+
                     if (!Status.ACTIVE.name().equals(user.getStatus())) {
                         log.warn(LogMessage.USER_DISABLED);
                         return BaseResponse.<UserAuthResponse>builder()
@@ -690,17 +784,7 @@ public class UserServiceImpl implements UserService {
                     }
 
                     // The only condition where userResponse and userAuthResponse should be built
-                    userResponse = UserResponse.builder()
-                            .username(user.getUsername())
-                            .mobile(user.getMobile())
-                            .nic(user.getNic())
-                            .status(user.getStatus())
-                            .email(user.getEmail())
-                            .dob(user.getDob())
-                            .addressNo(user.getAddressNo())
-                            .city(user.getCity())
-                            .name(user.getFullName())
-                            .build();
+                    userResponse = toUserResponse(user);
 
                     userAuthResponse = UserAuthResponse.builder()
                             .appUser(userResponse)
@@ -767,6 +851,119 @@ public class UserServiceImpl implements UserService {
                 .build();
     }
 
+    @Override
+    public BaseResponse<BatchTokenValidationResponse> batchTokenValidation(List<String> tokens) {
+        if (tokens == null || tokens.isEmpty() || tokens.size() > batchValidationMaxSize) {
+            return BaseResponse.<BatchTokenValidationResponse>builder()
+                    .code(ResponseCodeUtil.FAILED_CODE)
+                    .title(ResponseStatus.FAILED.name())
+                    .message("Between 1 and " + batchValidationMaxSize + " tokens are required.")
+                    .build();
+        }
+
+        try {
+            TokenVerdict[] verdicts = new TokenVerdict[tokens.size()];
+            String[] subjects = new String[tokens.size()];
+            String[] digests = new String[tokens.size()];
+
+            // Signature and expiry are checked locally; only tokens that pass go to the database
+            for (int i = 0; i < tokens.size(); i++) {
+                String token = tokens.get(i);
+                if (token == null || token.isBlank()) {
+                    verdicts[i] = rejectedVerdict(i, ResponseCodeUtil.INVALID_TOKEN_ERROR_CODE, LogMessage.INVALID_CREDENTIAL);
+                    continue;
+                }
+                try {
+                    subjects[i] = jwtKeyRing.verify(token).getSubject();
+                    digests[i] = TokenDigestUtil.sha256Hex(token);
+                } catch (TokenExpiredException e) {
+                    verdicts[i] = rejectedVerdict(i, ResponseCodeUtil.JWT_TOKEN_EXPIRED_ERROR_CODE, LogMessage.INVALID_CREDENTIAL);
+                } catch (JWTVerificationException e) {
+                    verdicts[i] = rejectedVerdict(i, ResponseCodeUtil.JWT_TOKEN_VALIDATE_ERROR_CODE, LogMessage.INVALID_CREDENTIAL);
+                }
+            }
+
+            Set<String> usernames = new HashSet<>();
+            List<String> unresolvedDigests = new ArrayList<>();
+            for (int i = 0; i < tokens.size(); i++) {
+                if (verdicts[i] == null) {
+                    usernames.add(subjects[i]);
+                    unresolvedDigests.add(digests[i]);
+                }
+            }
+
+            // Same revocation check as single validation, with one IN query for the digests unknown in memory and one for users
+            Set<String> revokedDigests = new HashSet<>();
+            Map<String, AppUser> usersByUsername = new HashMap<>();
+            if (!unresolvedDigests.isEmpty()) {
+                revokedDigests.addAll(tokenRevocationService.findRevoked(unresolvedDigests));
+                userRepository.findAppUsersByUsernameIn(usernames)
+                        .forEach(user -> usersByUsername.put(user.getUsername(), user));
+            }
+
+            for (int i = 0; i < tokens.size(); i++) {
+                if (verdicts[i] != null) {
+                    continue;
+                }
+                AppUser user = usersByUsername.get(subjects[i]);
+                if (revokedDigests.contains(digests[i])) {
+                    verdicts[i] = rejectedVerdict(i, ResponseCodeUtil.CANNOT_FIND_USER, "Session Expired");
+                } else if (user == null) {
+                    verdicts[i] = rejectedVerdict(i, ResponseCodeUtil.CANNOT_FIND_USER, "User not found.");
+                } else if (!Status.ACTIVE.name().equals(user.getStatus())) {
+                    verdicts[i] = rejectedVerdict(i, ResponseCodeUtil.DISABLE_USER_ERROR_CODE, LogMessage.USER_DISABLED);
+                } else {
+                    verdicts[i] = TokenVerdict.builder()
+                            .index(i)
+                            .valid(true)
+                            .code(ResponseCodeUtil.SUCCESS_CODE)
+                            .message("Successfully User Authenticated.")
+                            .appUser(toUserResponse(user))
+                            .authorities(getAuthorities(user))
+                            .build();
+                }
+            }
+
+            log.info("batchTokenValidation-> validated {} token(s) for {} distinct user(s)", tokens.size(), usernames.size());
+            return BaseResponse.<BatchTokenValidationResponse>builder()
+                    .code(ResponseCodeUtil.SUCCESS_CODE)
+                    .title(ResponseStatus.SUCCESS.name())
+                    .message("Tokens validated.")
+                    .data(BatchTokenValidationResponse.builder().results(List.of(verdicts)).build())
+                    .build();
+        } catch (Exception e) {
+            log.error("batchTokenValidation -> Exception : " + e.getMessage(), e);
+            return BaseResponse.<BatchTokenValidationResponse>builder()
+                    .code(ResponseCodeUtil.INTERNAL_SERVER_ERROR_CODE)
+                    .title(ResponseStatus.FAILED.name())
+                    .message("Internal error occurred in token validation process.")
+                    .build();
+        }
+    }
+
+    private TokenVerdict rejectedVerdict(int index, String code, String message) {
+        return TokenVerdict.builder()
+                .index(index)
+                .valid(false)
+                .code(code)
+                .message(message)
+                .build();
+    }
+
+    private UserResponse toUserResponse(AppUser user) {
+        return UserResponse.builder()
+                .username(user.getUsername())
+                .mobile(user.getMobile())
+                .nic(user.getNic())
+                .status(user.getStatus())
+                .email(user.getEmail())
+                .dob(user.getDob())
+                .addressNo(user.getAddressNo())
+                .city(user.getCity())
+                .name(user.getFullName())
+                .build();
+    }
+
     @Override
     public BaseResponse<UpdateUserDetailsResponse> updateUserDetails(UpdateUserDetailsRequest updateUserDetailsRequest, AppUser appUser) {
 
@@ -786,6 +983,8 @@ public class UserServiceImpl implements UserService {
         appUserByUsername.setMobile(mobile);
         appUserByUsername.setFullName(updateUserDetailsRequest.getFullname());
         userRepository.save(appUserByUsername);
+        registeredEmailIndex.add(email);
+        tokenAuthenticationCache.invalidateUser(appUserByUsername.getUsername());
 
         UpdateUserDetailsResponse updateUserDetailsResponse = new UpdateUserDetailsResponse();
         updateUserDetailsResponse.setEmail(email);
@@ -801,4 +1000,8 @@ public class UserServiceImpl implements UserService {
 
     }
 
+    private List<String> getAuthorities(AppUser appUser) {
+        return roleAuthorityRegistry.getAuthorityNames(appUser.getRoles());
+    }
+
 }
@@ -0,0 +1,34 @@
+package com.greensphere.userservice.utils;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Runs encode and matches on the bounded {@link HashingExecutor}, so every BCrypt operation,
+ * including the one inside authenticationManager.authenticate, goes through the same admission
+ * control. upgradeEncoding only parses the stored hash and stays on the caller's thread.
+ */
+public class AdmissionControlledPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final HashingExecutor hashingExecutor;
+
+    public AdmissionControlledPasswordEncoder(PasswordEncoder delegate, HashingExecutor hashingExecutor) {
+        this.delegate = delegate;
+        this.hashingExecutor = hashingExecutor;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return hashingExecutor.execute(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return hashingExecutor.execute(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
@@ -0,0 +1,55 @@
+package com.greensphere.userservice.utils;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps the number of concurrent calls to a dependency. Callers wait at most maxWaitMillis for a
+ * slot and are rejected after that, so a slow dependency cannot hold every request thread. With
+ * a wait of zero a full bulkhead rejects immediately without blocking.
+ */
+public class Bulkhead {
+
+    private final int maxConcurrentCalls;
+    private final long maxWaitMillis;
+    private final Semaphore permits;
+    private final LongAdder rejectedCount = new LongAdder();
+
+    public Bulkhead(int maxConcurrentCalls, long maxWaitMillis) {
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.maxWaitMillis = maxWaitMillis;
+        this.permits = new Semaphore(maxConcurrentCalls, true);
+    }
+
+    public boolean tryEnter() {
+        try {
+            boolean acquired = maxWaitMillis > 0
+                    ? permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS)
+                    : permits.tryAcquire();
+            if (acquired) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        rejectedCount.increment();
+        return false;
+    }
+
+    public void exit() {
+        permits.release();
+    }
+
+    public int getActiveCalls() {
+        return maxConcurrentCalls - permits.availablePermits();
+    }
+
+    public int getQueuedCalls() {
+        return permits.getQueueLength();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+}
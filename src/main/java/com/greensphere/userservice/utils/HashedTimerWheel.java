@@ -0,0 +1,111 @@
+package com.greensphere.userservice.utils;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Hashed timer wheel: timeouts are hashed by their deadline tick into a fixed ring of buckets and
+ * a single worker thread visits one bucket per tick. Scheduling is O(1) and lock-free, which suits
+ * large numbers of short-lived timers such as per-user cooldowns. Timers fire up to one tick late.
+ * Built without a worker (and with a supplied clock) the wheel only moves when {@link #advance()}
+ * is called, which lets tests drive it deterministically.
+ */
+@Slf4j
+public class HashedTimerWheel {
+
+    private final long tickNanos;
+    private final int mask;
+    private final Queue<Timeout>[] buckets;
+    private final LongSupplier nanoClock;
+    private final long startNanos;
+    private final Thread worker;
+    // next tick to process
+    private volatile long tick;
+    private volatile boolean running = true;
+
+    public HashedTimerWheel(String name, long tickMillis, int wheelSize) {
+        this(tickMillis, wheelSize, System::nanoTime, name);
+    }
+
+    public HashedTimerWheel(long tickMillis, int wheelSize, LongSupplier nanoClock) {
+        this(tickMillis, wheelSize, nanoClock, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private HashedTimerWheel(long tickMillis, int wheelSize, LongSupplier nanoClock, String workerName) {
+        if (Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("wheelSize must be a power of two");
+        }
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.mask = wheelSize - 1;
+        this.buckets = new Queue[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.nanoClock = nanoClock;
+        this.startNanos = nanoClock.getAsLong();
+        // requires Java 21 (Thread.ofPlatform)
+        this.worker = workerName == null ? null : Thread.ofPlatform().name(workerName).daemon(true).unstarted(this::run);
+        if (worker != null) {
+            worker.start();
+        }
+    }
+
+    public void schedule(Runnable task, long delay, TimeUnit unit) {
+        long deadlineNanos = nanoClock.getAsLong() - startNanos + unit.toNanos(delay);
+        long deadlineTick = (deadlineNanos + tickNanos - 1) / tickNanos;
+        // never behind the worker, otherwise the timer would wait a full rotation
+        deadlineTick = Math.max(deadlineTick, tick + 1);
+        buckets[(int) (deadlineTick & mask)].add(new Timeout(task, deadlineTick));
+    }
+
+    private void run() {
+        while (running) {
+            long sleepNanos = (tick * tickNanos) - (nanoClock.getAsLong() - startNanos);
+            if (sleepNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            advance();
+        }
+    }
+
+    // Runs every tick that is due by the clock; called by the worker, or by the owner when there is none
+    public void advance() {
+        long elapsed = nanoClock.getAsLong() - startNanos;
+        for (long current = tick; current * tickNanos <= elapsed; current++) {
+            Iterator<Timeout> iterator = buckets[(int) (current & mask)].iterator();
+            while (iterator.hasNext()) {
+                Timeout timeout = iterator.next();
+                if (timeout.deadlineTick <= current) {
+                    iterator.remove();
+                    try {
+                        timeout.task.run();
+                    } catch (Exception e) {
+                        log.error("HashedTimerWheel-> timer task failed: {}", e.getMessage(), e);
+                    }
+                }
+            }
+            tick = current + 1;
+        }
+    }
+
+    public void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    private record Timeout(Runnable task, long deadlineTick) {
+    }
+}
@@ -0,0 +1,138 @@
+package com.greensphere.userservice.utils;
+
+import com.greensphere.userservice.exceptions.HashingRejectedException;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Fixed pool with a bounded queue for CPU-heavy password hashing. A call is rejected up front
+ * when the estimated queue wait (queue depth times the moving average hash time) would exceed
+ * the deadline, and abandoned once the deadline passes, so callers fail fast with a retry hint
+ * instead of piling up behind a burst of logins.
+ */
+public class HashingExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final int threads;
+    private final long deadlineMillis;
+    private final LongSupplier nanoClock;
+
+    private final LongAdder completedCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+    private final LongAdder totalHashNanos = new LongAdder();
+    private final AtomicLong maxHashNanos = new AtomicLong();
+    // exponentially weighted; concurrent updates may drop a sample, which is fine for an estimate
+    private volatile double averageHashNanos;
+
+    public HashingExecutor(int threads, int queueCapacity, long deadlineMillis, long initialHashMillis) {
+        this(threads, queueCapacity, deadlineMillis, initialHashMillis, System::nanoTime);
+    }
+
+    // nanoClock times the hashes that feed the wait estimate
+    public HashingExecutor(int threads, int queueCapacity, long deadlineMillis, long initialHashMillis, LongSupplier nanoClock) {
+        this.threads = threads;
+        this.nanoClock = nanoClock;
+        this.deadlineMillis = deadlineMillis;
+        this.averageHashNanos = TimeUnit.MILLISECONDS.toNanos(initialHashMillis);
+        // requires Java 21 (Thread.ofPlatform)
+        ThreadFactory threadFactory = Thread.ofPlatform().name("password-hashing-", 0).daemon(true).factory();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public <T> T execute(Supplier<T> task) {
+        long estimatedWaitMillis = getEstimatedWaitMillis();
+        if (estimatedWaitMillis > deadlineMillis) {
+            throw reject(estimatedWaitMillis);
+        }
+
+        Future<T> future;
+        try {
+            future = executor.submit(() -> timed(task));
+        } catch (RejectedExecutionException e) {
+            throw reject(estimatedWaitMillis);
+        }
+
+        try {
+            return future.get(deadlineMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // a queued task is dropped; one already hashing finishes and its result is discarded
+            future.cancel(false);
+            throw reject(getEstimatedWaitMillis());
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(false);
+            throw reject(getEstimatedWaitMillis());
+        }
+    }
+
+    private <T> T timed(Supplier<T> task) {
+        long start = nanoClock.getAsLong();
+        try {
+            return task.get();
+        } finally {
+            long elapsed = nanoClock.getAsLong() - start;
+            completedCount.increment();
+            totalHashNanos.add(elapsed);
+            maxHashNanos.accumulateAndGet(elapsed, Math::max);
+            averageHashNanos += (elapsed - averageHashNanos) * 0.1;
+        }
+    }
+
+    private HashingRejectedException reject(long estimatedWaitMillis) {
+        rejectedCount.increment();
+        long retryAfterSeconds = Math.max(1, TimeUnit.MILLISECONDS.toSeconds(estimatedWaitMillis + 999));
+        return new HashingRejectedException("Password hashing capacity exceeded", retryAfterSeconds);
+    }
+
+    public long getEstimatedWaitMillis() {
+        long waves = executor.getQueue().size() / threads + 1;
+        return (long) (waves * averageHashNanos / 1_000_000);
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public long getCompletedCount() {
+        return completedCount.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    public double getAverageHashMillis() {
+        return averageHashNanos / 1_000_000;
+    }
+
+    public double getMaxHashMillis() {
+        return maxHashNanos.get() / 1_000_000.0;
+    }
+
+    public double getMeanHashMillis() {
+        long completed = completedCount.sum();
+        return completed == 0 ? 0 : totalHashNanos.sum() / 1_000_000.0 / completed;
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
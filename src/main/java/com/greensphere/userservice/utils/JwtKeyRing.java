@@ -0,0 +1,153 @@
+package com.greensphere.userservice.utils;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.*;
+
+/**
+ * Holds the signing algorithm and verifiers for every configured key, built once at startup.
+ * The active key signs new tokens: the HMAC key (jwt.secret / jwt.key-id) by default, or the
+ * ES256 key pair when jwt.signing-algorithm=ES256, identified by its JWK thumbprint. Retired HMAC
+ * keys listed in jwt.previous-keys as "kid:secret,kid:secret" are kept for verification only, so
+ * tokens issued before a rotation stay valid until they expire.
+ */
+@Component
+@Slf4j
+public class JwtKeyRing {
+
+    public static final String HS512 = "HS512";
+    public static final String ES256 = "ES256";
+
+    private final String activeKeyId;
+    private final Algorithm activeAlgorithm;
+    private final JWTVerifier legacyVerifier;
+    private final Map<String, JWTVerifier> verifiers;
+    private final List<Map<String, Object>> publicJwks;
+
+    public JwtKeyRing(@Value("${jwt.secret}") String jwtSecret,
+                      @Value("${jwt.key-id:default}") String hmacKeyId,
+                      @Value("${jwt.previous-keys:}") String previousKeys,
+                      @Value("${jwt.signing-algorithm:HS512}") String signingAlgorithm,
+                      @Value("${jwt.ec.private-key:}") String ecPrivateKey,
+                      @Value("${jwt.ec.public-key:}") String ecPublicKey) {
+        Algorithm hmacAlgorithm = Algorithm.HMAC512(jwtSecret.getBytes());
+        this.legacyVerifier = JWT.require(hmacAlgorithm).build();
+
+        Map<String, JWTVerifier> keys = new HashMap<>();
+        keys.put(hmacKeyId, legacyVerifier);
+        for (String entry : previousKeys.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int separator = entry.indexOf(':');
+            if (separator < 1) {
+                throw new IllegalStateException("jwt.previous-keys entries must be in kid:secret format");
+            }
+            String keyId = entry.substring(0, separator).trim();
+            String secret = entry.substring(separator + 1).trim();
+            keys.putIfAbsent(keyId, JWT.require(Algorithm.HMAC512(secret.getBytes())).build());
+        }
+
+        if (ES256.equalsIgnoreCase(signingAlgorithm)) {
+            KeyPair keyPair = loadEcKeyPair(ecPrivateKey, ecPublicKey);
+            ECPublicKey publicKey = (ECPublicKey) keyPair.getPublic();
+            // every node configured with the same key pair derives the same kid
+            String ecKeyId = thumbprint(publicKey);
+            Algorithm ecAlgorithm = Algorithm.ECDSA256(publicKey, (ECPrivateKey) keyPair.getPrivate());
+            keys.put(ecKeyId, JWT.require(ecAlgorithm).build());
+            this.activeKeyId = ecKeyId;
+            this.activeAlgorithm = ecAlgorithm;
+            this.publicJwks = List.of(toJwk(ecKeyId, publicKey));
+        } else if (HS512.equalsIgnoreCase(signingAlgorithm)) {
+            this.activeKeyId = hmacKeyId;
+            this.activeAlgorithm = hmacAlgorithm;
+            this.publicJwks = List.of();
+        } else {
+            throw new IllegalStateException("Unsupported jwt.signing-algorithm: " + signingAlgorithm);
+        }
+        this.verifiers = Map.copyOf(keys);
+        log.info("JwtKeyRing-> signing algorithm: {}, active key id: {}, verification keys: {}", signingAlgorithm, activeKeyId, verifiers.keySet());
+    }
+
+    public String getActiveKeyId() {
+        return activeKeyId;
+    }
+
+    public Algorithm getSigningAlgorithm() {
+        return activeAlgorithm;
+    }
+
+    // Public keys in JWK format; empty when tokens are signed with the shared HMAC secret
+    public List<Map<String, Object>> getPublicJwks() {
+        return publicJwks;
+    }
+
+    // Tokens issued before key ids were introduced carry no kid and are checked against the HMAC key
+    public DecodedJWT verify(String token) {
+        DecodedJWT decodedJWT = JWT.decode(token);
+        String keyId = decodedJWT.getKeyId();
+        JWTVerifier verifier = keyId == null ? legacyVerifier : verifiers.get(keyId);
+        if (verifier == null) {
+            throw new JWTVerificationException("Unknown JWT key id: " + keyId);
+        }
+        return verifier.verify(decodedJWT);
+    }
+
+    private static KeyPair loadEcKeyPair(String privateKey, String publicKey) {
+        try {
+            // a generated key would differ per node and per restart, so tokens would not verify elsewhere
+            if (privateKey.isBlank() || publicKey.isBlank()) {
+                throw new IllegalStateException("jwt.ec.private-key and jwt.ec.public-key must be set when jwt.signing-algorithm=ES256");
+            }
+            KeyFactory keyFactory = KeyFactory.getInstance("EC");
+            return new KeyPair(
+                    keyFactory.generatePublic(new X509EncodedKeySpec(Base64.getDecoder().decode(publicKey))),
+                    keyFactory.generatePrivate(new PKCS8EncodedKeySpec(Base64.getDecoder().decode(privateKey))));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to load ES256 signing key pair", e);
+        }
+    }
+
+    // RFC 7638 JWK thumbprint: SHA-256 over the required members in lexicographic order
+    private static String thumbprint(ECPublicKey publicKey) {
+        String canonical = "{\"crv\":\"P-256\",\"kty\":\"EC\",\"x\":\"" + encodeCoordinate(publicKey.getW().getAffineX())
+                + "\",\"y\":\"" + encodeCoordinate(publicKey.getW().getAffineY()) + "\"}";
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(TokenDigestUtil.sha256(canonical));
+    }
+
+    private static Map<String, Object> toJwk(String keyId, ECPublicKey publicKey) {
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        jwk.put("kty", "EC");
+        jwk.put("crv", "P-256");
+        jwk.put("use", "sig");
+        jwk.put("alg", ES256);
+        jwk.put("kid", keyId);
+        jwk.put("x", encodeCoordinate(publicKey.getW().getAffineX()));
+        jwk.put("y", encodeCoordinate(publicKey.getW().getAffineY()));
+        return Collections.unmodifiableMap(jwk);
+    }
+
+    // JWK coordinates are unsigned, fixed length (32 bytes for P-256), base64url without padding
+    private static String encodeCoordinate(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        byte[] fixed = new byte[32];
+        int length = Math.min(bytes.length, fixed.length);
+        System.arraycopy(bytes, bytes.length - length, fixed, fixed.length - length, length);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(fixed);
+    }
+}
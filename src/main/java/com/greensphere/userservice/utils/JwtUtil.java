@@ -1,12 +1,12 @@
 package com.greensphere.userservice.utils;
 
 import com.auth0.jwt.JWT;
-import com.auth0.jwt.JWTVerifier;
-import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.JWTCreator;
 import com.auth0.jwt.exceptions.JWTDecodeException;
 import com.auth0.jwt.exceptions.TokenExpiredException;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import com.greensphere.userservice.dto.request.tokenRequest.TokenRequest;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
@@ -16,29 +16,21 @@ import java.util.Date;
 
 @Component
 @Slf4j
+@RequiredArgsConstructor
 public class JwtUtil {
+    private final JwtKeyRing jwtKeyRing;
     @Value("${jwt.refresh.validity}")
     private int refreshValidity;
-    @Value("${jwt.secret}")
-    private String jwtSecret;
     @Value("${jwt.validity}")
     private int jwtValidity;
 
     public String createJwtToken(TokenRequest tokenRequest) {
-        return JWT.create()
-                .withSubject(tokenRequest.getUsername())
-                .withClaim("role", tokenRequest.getRole())
-                .withIssuedAt(Date.from(tokenRequest.getNow().atZone(ZoneId.systemDefault()).toInstant()))
-                .withIssuer("GreenSphare")
-                .withExpiresAt(new Date(System.currentTimeMillis() + jwtValidity * 1000L))
-                .sign(Algorithm.HMAC512(jwtSecret.getBytes()));
+        return createToken(tokenRequest, jwtValidity);
     }
 
     public boolean isValidToken(String token) {
         try {
-            Algorithm algorithm = Algorithm.HMAC512(jwtSecret.getBytes());
-            JWTVerifier verifier = JWT.require(algorithm).build();
-            DecodedJWT decodedJWT = verifier.verify(token);
+            DecodedJWT decodedJWT = jwtKeyRing.verify(token);
 
             // Extract the expiration claim
             Long expirationTime = decodedJWT.getClaim("exp").asLong();
@@ -60,14 +52,26 @@ public class JwtUtil {
     }
 
     public String createRefreshToken(TokenRequest tokenRequest) {
-        return JWT.create()
+        return createToken(tokenRequest, refreshValidity);
+    }
+
+    // authorities and email are embedded so services holding the public key can authorize without calling back
+    private String createToken(TokenRequest tokenRequest, int validity) {
+        JWTCreator.Builder builder = JWT.create()
+                .withKeyId(jwtKeyRing.getActiveKeyId())
                 .withSubject(tokenRequest.getUsername())
                 .withClaim("role", tokenRequest.getRole())
+                .withClaim("sv", tokenRequest.getStateVersion())
                 .withIssuedAt(Date.from(tokenRequest.getNow().atZone(ZoneId.systemDefault()).toInstant()))
                 .withIssuer("GreenSphare")
-                .withExpiresAt(new Date(System.currentTimeMillis() + refreshValidity * 1000L))
-                .sign(Algorithm.HMAC512(jwtSecret.getBytes()));
-
+                .withExpiresAt(new Date(System.currentTimeMillis() + validity * 1000L));
+        if (tokenRequest.getAuthorities() != null) {
+            builder.withClaim("authorities", tokenRequest.getAuthorities());
+        }
+        if (tokenRequest.getEmail() != null) {
+            builder.withClaim("email", tokenRequest.getEmail());
+        }
+        return builder.sign(jwtKeyRing.getSigningAlgorithm());
     }
 
     public String getUsernameFromToken(String token) {
@@ -0,0 +1,79 @@
+package com.greensphere.userservice.utils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with exponentially growing buckets (0.1ms to about a minute, 20%
+ * apart), so percentiles are reported within one bucket of the true value at constant memory.
+ */
+public class LatencyHistogram {
+
+    private static final long FIRST_BOUND_MICROS = 100;
+    private static final double GROWTH = 1.2;
+    private static final long[] UPPER_BOUNDS_MICROS = buildBounds();
+
+    private final AtomicLongArray counts = new AtomicLongArray(UPPER_BOUNDS_MICROS.length + 1);
+    private final LongAdder totalCount = new LongAdder();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    private static long[] buildBounds() {
+        long limit = TimeUnit.SECONDS.toMicros(60);
+        int size = (int) Math.ceil(Math.log((double) limit / FIRST_BOUND_MICROS) / Math.log(GROWTH)) + 1;
+        long[] bounds = new long[size];
+        double bound = FIRST_BOUND_MICROS;
+        for (int i = 0; i < size; i++) {
+            bounds[i] = (long) bound;
+            bound *= GROWTH;
+        }
+        return bounds;
+    }
+
+    public void record(long durationNanos) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(durationNanos);
+        counts.incrementAndGet(bucketOf(micros));
+        totalCount.increment();
+        maxMicros.accumulateAndGet(micros, Math::max);
+    }
+
+    private static int bucketOf(long micros) {
+        int low = 0;
+        int high = UPPER_BOUNDS_MICROS.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (UPPER_BOUNDS_MICROS[mid] < micros) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Upper bound of the bucket holding the given percentile (0-100), in milliseconds
+    public double getPercentileMillis(double percentile) {
+        long total = totalCount.sum();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return i < UPPER_BOUNDS_MICROS.length ? UPPER_BOUNDS_MICROS[i] / 1000.0 : getMaxMillis();
+            }
+        }
+        return getMaxMillis();
+    }
+
+    public long getCount() {
+        return totalCount.sum();
+    }
+
+    public double getMaxMillis() {
+        return maxMicros.get() / 1000.0;
+    }
+}
@@ -1,23 +1,66 @@
 package com.greensphere.userservice.utils;
 
-import lombok.NoArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.util.*;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
 
+/**
+ * Generates OTP codes of any length from a configurable alphabet (digits by default). Every
+ * position is drawn independently and uniformly from a SecureRandom, so codes may repeat
+ * characters and the keyspace is the full alphabet^length. Each thread draws from its own DRBG
+ * instance, so concurrent registrations do not queue on one generator; the default NativePRNG
+ * would not help here, its instances share a process-wide lock. A code is drawn with one
+ * nextBytes call rather than one generate per character.
+ */
 @Component
-@NoArgsConstructor
 public class RandomNumberGenerator {
 
-    private static final List<Integer> digits =
-            new ArrayList<>(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9));
+    // every instance seeds itself from the platform entropy source on first use
+    private static final ThreadLocal<SecureRandom> RANDOM = ThreadLocal.withInitial(RandomNumberGenerator::newSecureRandom);
 
-    public static String createRandomReference(int length) {
-        Collections.shuffle(digits);
-        final StringBuilder sb = new StringBuilder(length);
-        for (Integer digit : digits.subList(0, length)) {
-            sb.append(digit);
+    private final char[] alphabet;
+    // bytes at or above the limit are drawn again so every character stays equally likely,
+    // 0 for alphabets larger than a byte
+    private final int byteLimit;
+
+    public RandomNumberGenerator(@Value("${otp.alphabet:0123456789}") String alphabet) {
+        if (alphabet == null || alphabet.isEmpty() || alphabet.chars().distinct().count() != alphabet.length()) {
+            throw new IllegalArgumentException("otp.alphabet must be a non-empty set of distinct characters");
+        }
+        this.alphabet = alphabet.toCharArray();
+        this.byteLimit = alphabet.length() > 256 ? 0 : 256 - 256 % alphabet.length();
+    }
+
+    public String createRandomReference(int length) {
+        SecureRandom random = RANDOM.get();
+        char[] code = new char[length];
+        if (byteLimit == 0) {
+            for (int i = 0; i < length; i++) {
+                code[i] = alphabet[random.nextInt(alphabet.length)];
+            }
+            return new String(code);
+        }
+        byte[] bytes = new byte[length + length / 4 + 1];
+        int filled = 0;
+        while (filled < length) {
+            random.nextBytes(bytes);
+            for (int i = 0; i < bytes.length && filled < length; i++) {
+                int value = bytes[i] & 0xFF;
+                if (value < byteLimit) {
+                    code[filled++] = alphabet[value % alphabet.length];
+                }
+            }
+        }
+        return new String(code);
+    }
+
+    private static SecureRandom newSecureRandom() {
+        try {
+            return SecureRandom.getInstance("DRBG");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("DRBG SecureRandom is not available", e);
         }
-        return sb.toString();
     }
 }
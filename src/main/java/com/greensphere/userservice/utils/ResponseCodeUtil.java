@@ -4,6 +4,8 @@ public class ResponseCodeUtil {
 
     public static final String SUCCESS_CODE = "0000";
     public static final String INTERNAL_SERVER_ERROR_CODE = "1010";
+    public static final String SERVICE_UNAVAILABLE_CODE = "1020";
+    public static final String RATE_LIMITED_ERROR_CODE = "1030";
     public static final String FAILED_CODE = "2020";
     public static final String PARAMETER_MISSING = "2026";
     public static final String FAILED = "FAILED";
@@ -22,6 +24,7 @@ public class ResponseCodeUtil {
     public static final String OTP_NOT_FOUND_ERROR_CODE = "5003";
     public static final String OTP_VERIFICATION_FAILED_ERROR_CODE = "5004";
     public static final String TIME_EXCEED_ERROR_CODE = "5005";
+    public static final String OTP_RESEND_THROTTLED_ERROR_CODE = "5006";
 
 
     //
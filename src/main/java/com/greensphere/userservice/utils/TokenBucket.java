@@ -0,0 +1,63 @@
+package com.greensphere.userservice.utils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free token bucket holding up to capacity tokens and refilling at refillPerSecond. The state
+ * is a single theoretical arrival time (GCRA): taking a token moves it forward by one emission
+ * interval, and the bucket is empty once it runs more than capacity intervals ahead of now. A
+ * call is one CAS on an AtomicLong, with no refill thread and no lock.
+ */
+public class TokenBucket {
+
+    private final long emissionIntervalNanos;
+    private final long burstNanos;
+    private final AtomicLong theoreticalArrival;
+    private final LongSupplier nanoClock;
+
+    public TokenBucket(int capacity, double refillPerSecond) {
+        this(capacity, refillPerSecond, System::nanoTime);
+    }
+
+    public TokenBucket(int capacity, double refillPerSecond, LongSupplier nanoClock) {
+        if (capacity <= 0 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("capacity and refillPerSecond must be positive");
+        }
+        this.emissionIntervalNanos = Math.max(1L, (long) (TimeUnit.SECONDS.toNanos(1) / refillPerSecond));
+        this.burstNanos = emissionIntervalNanos * capacity;
+        this.nanoClock = nanoClock;
+        this.theoreticalArrival = new AtomicLong(nanoClock.getAsLong());
+    }
+
+    public boolean tryConsume() {
+        return tryConsume(nanoClock.getAsLong()) == 0;
+    }
+
+    /**
+     * Takes one token, returning 0 on success or the nanoseconds until a token is available.
+     */
+    public long tryConsume(long nowNanos) {
+        while (true) {
+            long tat = theoreticalArrival.get();
+            long next = Math.max(tat - nowNanos, 0) + emissionIntervalNanos;
+            if (next > burstNanos) {
+                return next - burstNanos;
+            }
+            if (theoreticalArrival.compareAndSet(tat, nowNanos + next)) {
+                return 0;
+            }
+        }
+    }
+
+    // a bucket that has refilled completely carries no state and can be dropped
+    public boolean isFull(long nowNanos) {
+        return theoreticalArrival.get() - nowNanos <= 0;
+    }
+
+    public int getAvailableTokens(long nowNanos) {
+        long used = Math.max(theoreticalArrival.get() - nowNanos, 0);
+        return (int) ((burstNanos - used) / emissionIntervalNanos);
+    }
+}
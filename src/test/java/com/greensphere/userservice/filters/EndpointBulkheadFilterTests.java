@@ -0,0 +1,38 @@
+package com.greensphere.userservice.filters;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EndpointBulkheadFilterTests {
+
+    // no permits for authentication, so any request matched to it is rejected
+    private final EndpointBulkheadFilter filter = new EndpointBulkheadFilter(new ObjectMapper(), 10, 0, 10);
+
+    @Test
+    void matchesTrailingSlashAndPathParameters() throws Exception {
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), status("/user/login", "/user/login"));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), status("/user/login/", "/user/login/"));
+        // the container strips ;jsessionid from the servlet path but not from the request URI
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), status("/user/login;jsessionid=abc", "/user/login"));
+    }
+
+    @Test
+    void passesUnclassifiedPaths() throws Exception {
+        assertEquals(HttpStatus.OK.value(), status("/user/profile", "/user/profile"));
+        assertEquals(HttpStatus.OK.value(), status("/", "/"));
+    }
+
+    private int status(String requestUri, String servletPath) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", requestUri);
+        request.setServletPath(servletPath);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+}
@@ -0,0 +1,90 @@
+package com.greensphere.userservice.repository;
+
+import com.greensphere.userservice.entity.AppUser;
+import com.greensphere.userservice.entity.Permission;
+import com.greensphere.userservice.entity.Role;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Counts the statements behind the AppUser fetch plans with Hibernate statistics on an embedded database
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class UserRepositoryTests {
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private RoleRepository roleRepository;
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        Permission read = entityManager.persist(Permission.builder().name("READ").build());
+        Permission write = entityManager.persist(Permission.builder().name("WRITE").build());
+        Role user = entityManager.persist(Role.builder().name("USER").permissions(new HashSet<>(Set.of(read))).build());
+        Role admin = entityManager.persist(Role.builder().name("ADMIN").permissions(new HashSet<>(Set.of(read, write))).build());
+        entityManager.persist(AppUser.builder()
+                .username("alice")
+                .email("alice@example.com")
+                .roles(new HashSet<>(Set.of(user, admin)))
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void loadsUserRolesAndPermissionsInOneStatement() {
+        AppUser appUser = userRepository.findWithRolesByUsername("alice");
+
+        int permissions = appUser.getRoles().stream().mapToInt(role -> role.getPermissions().size()).sum();
+        assertEquals(2, appUser.getRoles().size());
+        assertEquals(3, permissions);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void loadsUserByEmailInOneStatement() {
+        AppUser appUser = userRepository.findAppUserByEmail("alice@example.com");
+
+        appUser.getRoles().forEach(role -> role.getPermissions().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void leanLookupLeavesRolesUnloaded() {
+        AppUser appUser = userRepository.findAppUserByUsername("alice");
+
+        assertEquals("alice@example.com", appUser.getEmail());
+        assertFalse(Hibernate.isInitialized(appUser.getRoles()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void loadsAllRolesWithPermissionsInOneStatement() {
+        List<Role> roles = roleRepository.findAllWithPermissions();
+
+        roles.forEach(role -> assertTrue(Hibernate.isInitialized(role.getPermissions())));
+        assertEquals(2, roles.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
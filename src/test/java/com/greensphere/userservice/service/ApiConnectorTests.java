@@ -0,0 +1,115 @@
+package com.greensphere.userservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.greensphere.userservice.config.WebClientConfig;
+import com.greensphere.userservice.exceptions.ApiUnavailableException;
+import com.greensphere.userservice.utils.Bulkhead;
+import com.greensphere.userservice.utils.CircuitBreaker;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs ApiConnector against a local stub of the notification service that can inject latency and errors
+class ApiConnectorTests {
+
+    private static final Map<String, String> SMS_REQUEST = Map.of("mobileNumber", "94771234567", "message", "test");
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private final AtomicInteger hits = new AtomicInteger();
+    private volatile int responseStatus = 200;
+    private volatile long responseDelayMillis = 0;
+
+    private CircuitBreaker circuitBreaker;
+    private ApiConnector apiConnector;
+    private String url;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.createContext("/user/send-sms", exchange -> {
+            hits.incrementAndGet();
+            try {
+                Thread.sleep(responseDelayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = "{\"code\":\"0000\",\"message\":\"sent\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(responseStatus, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+
+        circuitBreaker = new CircuitBreaker("sms-service", 3, 60_000);
+        WebClient webClient = new WebClientConfig().webClient(10, 10, 1000, 30000, 1000, 300);
+        apiConnector = new ApiConnector(new ObjectMapper(), webClient, circuitBreaker, new Bulkhead(5, 100));
+        url = "http://127.0.0.1:" + server.getAddress().getPort() + "/user/send-sms";
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    void returnsBodyWhenServiceIsHealthy() {
+        String response = apiConnector.sendPostRequest(url, SMS_REQUEST, apiConnector.getHttpHeaders());
+
+        assertTrue(response.contains("0000"));
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void opensCircuitAfterConsecutiveServerErrors() {
+        responseStatus = 503;
+        for (int i = 0; i < 3; i++) {
+            apiConnector.sendPostRequest(url, SMS_REQUEST, apiConnector.getHttpHeaders());
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertThrows(ApiUnavailableException.class,
+                () -> apiConnector.sendPostRequest(url, SMS_REQUEST, apiConnector.getHttpHeaders()));
+        assertEquals(3, hits.get());
+        assertEquals(1, circuitBreaker.getRejectedCount());
+    }
+
+    @Test
+    void slowResponsesTimeOutAndCountAsFailures() {
+        responseDelayMillis = 1000;
+        for (int i = 0; i < 3; i++) {
+            assertThrows(ApiUnavailableException.class,
+                    () -> apiConnector.sendPostRequest(url, SMS_REQUEST, apiConnector.getHttpHeaders()));
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertEquals(3, circuitBreaker.getFailureCount());
+    }
+
+    @Test
+    void clientErrorsDoNotOpenCircuit() {
+        responseStatus = 404;
+        for (int i = 0; i < 5; i++) {
+            apiConnector.sendPostRequest(url, SMS_REQUEST, apiConnector.getHttpHeaders());
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertEquals(5, hits.get());
+    }
+}
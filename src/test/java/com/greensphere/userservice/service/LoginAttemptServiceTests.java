@@ -0,0 +1,73 @@
+package com.greensphere.userservice.service;
+
+import com.greensphere.userservice.entity.AppUser;
+import com.greensphere.userservice.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import static com.greensphere.userservice.enums.Status.ACTIVE;
+import static com.greensphere.userservice.enums.Status.DISABLED;
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs the failed-login bookkeeping and the targeted login updates against an embedded database
+@DataJpaTest
+@Import(LoginAttemptService.class)
+class LoginAttemptServiceTests {
+
+    @Autowired
+    private LoginAttemptService loginAttemptService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        entityManager.persist(AppUser.builder().username("alice").status(ACTIVE.name()).build());
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void countsFailuresAndDisablesAtTheLimit() {
+        assertEquals(1, loginAttemptService.recordFailedLogin("alice", 3, "locked").getLoginAttempts());
+        assertEquals(2, loginAttemptService.recordFailedLogin("alice", 3, "locked").getLoginAttempts());
+        AppUser disabled = loginAttemptService.recordFailedLogin("alice", 3, "locked");
+        entityManager.flush();
+
+        assertEquals(DISABLED.name(), disabled.getStatus());
+        assertEquals("locked", disabled.getDisabledReason());
+        assertEquals(1, disabled.getStateVersion());
+        assertEquals(3, disabled.getVersion());
+        assertNotNull(disabled.getUpdatedAt());
+    }
+
+    @Test
+    void ignoresUsersThatAreNotActive() {
+        loginAttemptService.recordFailedLogin("alice", 1, "locked");
+        entityManager.flush();
+
+        assertNull(loginAttemptService.recordFailedLogin("alice", 1, "locked"));
+        assertNull(loginAttemptService.recordFailedLogin("nobody", 1, "locked"));
+    }
+
+    @Test
+    void targetedUpdatesBumpTheVersion() {
+        loginAttemptService.recordFailedLogin("alice", 3, "locked");
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(1, userRepository.resetLoginAttempts("alice"));
+        assertEquals(1, userRepository.updatePassword("alice", "hash"));
+        entityManager.clear();
+
+        AppUser user = userRepository.findAppUserByUsername("alice");
+        assertEquals(0, user.getLoginAttempts());
+        assertEquals("hash", user.getPassword());
+        assertEquals(3, user.getVersion());
+    }
+}
@@ -0,0 +1,103 @@
+package com.greensphere.userservice.service;
+
+import com.greensphere.userservice.utils.HashedTimerWheel;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OtpResendThrottleTests {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final HashedTimerWheel timerWheel = new HashedTimerWheel(100, 1024, clock::get);
+
+    @Test
+    void rejectsDuringCooldownAndAllowsAfterIt() {
+        OtpResendThrottle throttle = new OtpResendThrottle(60, 5, 3600, timerWheel, clock::get);
+
+        assertEquals(0, throttle.tryAcquire("user"));
+        advanceSeconds(10);
+        assertEquals(50, throttle.tryAcquire("user"));
+
+        advanceSeconds(50);
+        assertEquals(0, throttle.tryAcquire("user"));
+    }
+
+    @Test
+    void rejectsOnceWindowLimitIsReached() {
+        OtpResendThrottle throttle = new OtpResendThrottle(0, 2, 60, timerWheel, clock::get);
+
+        assertEquals(0, throttle.tryAcquire("user"));
+        advanceSeconds(1);
+        assertEquals(0, throttle.tryAcquire("user"));
+        advanceSeconds(1);
+        assertEquals(58, throttle.tryAcquire("user"));
+        assertEquals(0, throttle.tryAcquire("other-user"));
+    }
+
+    @Test
+    void dropsStateWhenWindowCloses() {
+        OtpResendThrottle throttle = new OtpResendThrottle(0, 1, 60, timerWheel, clock::get);
+
+        assertEquals(0, throttle.tryAcquire("user"));
+        assertTrue(throttle.tryAcquire("user") > 0);
+
+        advanceSeconds(59);
+        assertEquals(1, throttle.size());
+        advanceSeconds(1);
+        assertEquals(0, throttle.size());
+        assertEquals(0, throttle.tryAcquire("user"));
+    }
+
+    @Test
+    void startsNewWindowWhenTimerHasNotRunYet() {
+        OtpResendThrottle throttle = new OtpResendThrottle(0, 1, 60, timerWheel, clock::get);
+
+        assertEquals(0, throttle.tryAcquire("user"));
+        // the clock passes the window without the wheel advancing
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(60));
+        assertEquals(0, throttle.tryAcquire("user"));
+
+        // the first window's timer must not drop the second window
+        timerWheel.advance();
+        assertEquals(1, throttle.size());
+        assertTrue(throttle.tryAcquire("user") > 0);
+    }
+
+    @Test
+    void givesSendBackWhenTransactionRollsBack() {
+        OtpResendThrottle throttle = new OtpResendThrottle(60, 1, 3600, timerWheel, clock::get);
+
+        completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK, () -> throttle.tryAcquire("user"));
+        assertEquals(0, throttle.tryAcquire("user"));
+        assertTrue(throttle.tryAcquire("user") > 0);
+    }
+
+    @Test
+    void keepsSendWhenTransactionCommits() {
+        OtpResendThrottle throttle = new OtpResendThrottle(60, 1, 3600, timerWheel, clock::get);
+
+        completeTransaction(TransactionSynchronization.STATUS_COMMITTED, () -> throttle.tryAcquire("user"));
+        assertTrue(throttle.tryAcquire("user") > 0);
+    }
+
+    private void completeTransaction(int status, Runnable work) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            work.run();
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(status));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private void advanceSeconds(long seconds) {
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(seconds));
+        timerWheel.advance();
+    }
+}
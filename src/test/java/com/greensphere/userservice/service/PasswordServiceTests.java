@@ -0,0 +1,37 @@
+package com.greensphere.userservice.service;
+
+import com.greensphere.userservice.config.PasswordConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordServiceTests {
+
+    private final PasswordService passwordService = new PasswordService(encoder(6));
+
+    @Test
+    void rehashesLowerCostAndUnprefixedHashes() {
+        assertTrue(passwordService.needsRehash("{bcrypt}" + new BCryptPasswordEncoder(4).encode("secret")));
+        assertTrue(passwordService.needsRehash(new BCryptPasswordEncoder(6).encode("secret")));
+    }
+
+    @Test
+    void keepsHashesAtOrAboveConfiguredCost() {
+        assertFalse(passwordService.needsRehash(passwordService.encode("secret")));
+        assertFalse(passwordService.needsRehash("{bcrypt}" + new BCryptPasswordEncoder(7).encode("secret")));
+        assertFalse(passwordService.needsRehash(null));
+    }
+
+    // same layout as PasswordConfig, without the hashing executor
+    private static DelegatingPasswordEncoder encoder(int strength) {
+        BCryptPasswordEncoder bCryptPasswordEncoder = new BCryptPasswordEncoder(strength);
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(PasswordConfig.BCRYPT_ID,
+                Map.of(PasswordConfig.BCRYPT_ID, bCryptPasswordEncoder));
+        encoder.setDefaultPasswordEncoderForMatches(bCryptPasswordEncoder);
+        return encoder;
+    }
+}
@@ -0,0 +1,46 @@
+package com.greensphere.userservice.service;
+
+import com.greensphere.userservice.enums.RateLimitedEndpoint;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTests {
+
+    @Test
+    void keepsIdentityBucketsWhenNewIpsFillTheMap() {
+        RateLimiter rateLimiter = rateLimiter(10);
+
+        rateLimiter.tryAcquire(RateLimitedEndpoint.LOGIN, "10.0.0.1", "victim");
+        rateLimiter.tryAcquire(RateLimitedEndpoint.LOGIN, "10.0.0.1", "victim");
+        assertTrue(rateLimiter.tryAcquire(RateLimitedEndpoint.LOGIN, "10.0.0.1", "victim") > 0);
+
+        for (int i = 0; i < 100; i++) {
+            rateLimiter.tryAcquire(RateLimitedEndpoint.LOGIN, "10.0.1." + i);
+        }
+
+        assertTrue(rateLimiter.getEvictionCount() > 0);
+        assertTrue(rateLimiter.size() <= 10);
+        assertTrue(rateLimiter.tryAcquire(RateLimitedEndpoint.LOGIN, "10.0.2.1", "victim") > 0);
+    }
+
+    @Test
+    void dropsIdentityBucketsOnlyWhenNoIpBucketsAreLeft() {
+        RateLimiter rateLimiter = rateLimiter(10);
+
+        for (int i = 0; i < 20; i++) {
+            rateLimiter.tryAcquire(RateLimitedEndpoint.LOGIN, "10.0.0.1", "user-" + i + "|ip|");
+        }
+
+        assertTrue(rateLimiter.size() <= 10);
+        assertTrue(rateLimiter.getEvictionCount() > 0);
+    }
+
+    // small buckets with no meaningful refill, so every used bucket stays non-full
+    private static RateLimiter rateLimiter(int maxKeys) {
+        return new RateLimiter(maxKeys,
+                2, 0.0001, 2, 0.0001,
+                2, 0.0001, 2, 0.0001,
+                1000, 0.0001, 2, 0.0001);
+    }
+}
@@ -0,0 +1,110 @@
+package com.greensphere.userservice.utils;
+
+import com.greensphere.userservice.exceptions.HashingRejectedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashingExecutorTests {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicLong clock = new AtomicLong();
+    private HashingExecutor hashingExecutor;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        hashingExecutor.shutdown();
+    }
+
+    @Test
+    void returnsResultAndRecordsHashTime() {
+        hashingExecutor = new HashingExecutor(1, 1, 1000, 10, clock::get);
+
+        assertEquals("hash", hashingExecutor.execute(() -> hashTaking(50)));
+        assertEquals(1, hashingExecutor.getCompletedCount());
+        assertEquals(0, hashingExecutor.getRejectedCount());
+        assertEquals(50, hashingExecutor.getMaxHashMillis(), 0.001);
+        // moving average: 10 + (50 - 10) * 0.1
+        assertEquals(14, hashingExecutor.getAverageHashMillis(), 0.001);
+    }
+
+    @Test
+    void startsRejectingOnceMeasuredHashesGetSlow() {
+        hashingExecutor = new HashingExecutor(1, 10, 100, 10, clock::get);
+
+        int completed = 0;
+        while (hashingExecutor.getEstimatedWaitMillis() <= 100) {
+            hashingExecutor.execute(() -> hashTaking(500));
+            completed++;
+        }
+        // 10ms moves toward 500ms by 10% per hash: 59, then 103.1
+        assertEquals(2, completed);
+        assertThrows(HashingRejectedException.class, () -> hashingExecutor.execute(() -> "hash"));
+        assertEquals(1, hashingExecutor.getRejectedCount());
+    }
+
+    @Test
+    void rethrowsTaskExceptionUnwrapped() {
+        hashingExecutor = new HashingExecutor(1, 1, 1000, 10);
+
+        assertThrows(IllegalArgumentException.class, () -> hashingExecutor.execute(() -> {
+            throw new IllegalArgumentException("bad hash");
+        }));
+    }
+
+    @Test
+    void rejectsWhenDeadlinePassesWhileQueued() {
+        hashingExecutor = new HashingExecutor(1, 10, 100, 1);
+        CompletableFuture.runAsync(() -> hashingExecutor.execute(this::blockUntilReleased));
+        waitUntilActive();
+
+        HashingRejectedException e = assertThrows(HashingRejectedException.class, () -> hashingExecutor.execute(() -> "late"));
+        assertTrue(e.getRetryAfterSeconds() >= 1);
+        // the blocking caller hits the same deadline, so only the late call is checked
+        assertEquals(0, hashingExecutor.getCompletedCount());
+    }
+
+    @Test
+    void rejectsUpFrontWhenEstimatedWaitExceedsDeadline() {
+        // a 1s average hash time can never fit a 100ms deadline
+        hashingExecutor = new HashingExecutor(1, 10, 100, 1000, clock::get);
+        AtomicBoolean ran = new AtomicBoolean();
+
+        assertThrows(HashingRejectedException.class, () -> hashingExecutor.execute(() -> {
+            ran.set(true);
+            return "hash";
+        }));
+        assertFalse(ran.get());
+        assertEquals(0, hashingExecutor.getCompletedCount());
+        assertEquals(1, hashingExecutor.getRejectedCount());
+    }
+
+    private String hashTaking(long millis) {
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+        return "hash";
+    }
+
+    private String blockUntilReleased() {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "blocked";
+    }
+
+    private void waitUntilActive() {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (hashingExecutor.getActiveCount() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.greensphere.userservice.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTests {
+
+    @Test
+    void reportsPercentilesWithinOneBucket() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 990; i++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(2));
+        }
+        for (int i = 0; i < 10; i++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(500));
+        }
+
+        assertEquals(1000, histogram.getCount());
+        double p50 = histogram.getPercentileMillis(50);
+        double p99 = histogram.getPercentileMillis(99);
+        double p999 = histogram.getPercentileMillis(99.9);
+        assertTrue(p50 >= 2 && p50 <= 2.4, "p50 was " + p50);
+        assertTrue(p99 >= 2 && p99 <= 2.4, "p99 was " + p99);
+        assertTrue(p999 >= 500 && p999 <= 600, "p99.9 was " + p999);
+        assertEquals(500, histogram.getMaxMillis(), 0.001);
+    }
+
+    @Test
+    void emptyHistogramReportsZero() {
+        assertEquals(0, new LatencyHistogram().getPercentileMillis(99));
+    }
+}
@@ -0,0 +1,115 @@
+package com.greensphere.userservice.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RandomNumberGeneratorTests {
+
+    // chi-square critical value for 9 degrees of freedom at p = 0.0001
+    private static final double CHI_SQUARE_LIMIT = 33.72;
+
+    private final RandomNumberGenerator generator = new RandomNumberGenerator("0123456789");
+
+    @Test
+    void producesRequestedLengthBeyondAlphabetSize() {
+        String code = generator.createRandomReference(32);
+
+        assertEquals(32, code.length());
+        assertTrue(code.chars().allMatch(Character::isDigit));
+    }
+
+    @Test
+    void usesConfiguredAlphabet() {
+        RandomNumberGenerator hex = new RandomNumberGenerator("0123456789ABCDEF");
+
+        String code = hex.createRandomReference(64);
+
+        assertTrue(code.chars().allMatch(c -> "0123456789ABCDEF".indexOf(c) >= 0));
+    }
+
+    @Test
+    void usesAlphabetLargerThanAByte() {
+        StringBuilder alphabet = new StringBuilder();
+        for (char c = 0x4E00; alphabet.length() < 300; c++) {
+            alphabet.append(c);
+        }
+        RandomNumberGenerator wide = new RandomNumberGenerator(alphabet.toString());
+
+        String code = wide.createRandomReference(64);
+
+        assertEquals(64, code.length());
+        assertTrue(code.chars().allMatch(c -> alphabet.indexOf(String.valueOf((char) c)) >= 0));
+    }
+
+    @Test
+    void rejectsInvalidAlphabet() {
+        assertThrows(IllegalArgumentException.class, () -> new RandomNumberGenerator(""));
+        assertThrows(IllegalArgumentException.class, () -> new RandomNumberGenerator("0012"));
+    }
+
+    @Test
+    void allowsRepeatedDigits() {
+        boolean repeated = false;
+        for (int i = 0; i < 1000 && !repeated; i++) {
+            String code = generator.createRandomReference(6);
+            repeated = code.chars().distinct().count() < code.length();
+        }
+        assertTrue(repeated);
+    }
+
+    @Test
+    void digitsAreUniformUnderConcurrentLoad() throws Exception {
+        int threads = 8;
+        int codesPerThread = 20_000;
+        int length = 6;
+        AtomicLongArray counts = new AtomicLongArray(10);
+        AtomicLongArray firstDigitCounts = new AtomicLongArray(10);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < codesPerThread; i++) {
+                        String code = generator.createRandomReference(length);
+                        assertEquals(length, code.length());
+                        firstDigitCounts.incrementAndGet(code.charAt(0) - '0');
+                        for (int c = 0; c < length; c++) {
+                            counts.incrementAndGet(code.charAt(c) - '0');
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertTrue(chiSquare(counts) < CHI_SQUARE_LIMIT, "digit distribution is not uniform");
+        assertTrue(chiSquare(firstDigitCounts) < CHI_SQUARE_LIMIT, "first digit distribution is not uniform");
+    }
+
+    private static double chiSquare(AtomicLongArray counts) {
+        long total = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            total += counts.get(i);
+        }
+        double expected = (double) total / counts.length();
+        double chiSquare = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            double diff = counts.get(i) - expected;
+            chiSquare += diff * diff / expected;
+        }
+        return chiSquare;
+    }
+}
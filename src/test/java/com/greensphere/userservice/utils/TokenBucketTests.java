@@ -0,0 +1,62 @@
+package com.greensphere.userservice.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTests {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void allowsBurstUpToCapacityThenRefills() {
+        TokenBucket bucket = new TokenBucket(3, 1, clock::get);
+        long now = clock.get();
+
+        assertEquals(0, bucket.tryConsume(now));
+        assertEquals(0, bucket.tryConsume(now));
+        assertEquals(0, bucket.tryConsume(now));
+        long wait = bucket.tryConsume(now);
+        assertEquals(TimeUnit.SECONDS.toNanos(1), wait);
+
+        assertEquals(0, bucket.tryConsume(now + TimeUnit.SECONDS.toNanos(1)));
+        assertTrue(bucket.tryConsume(now + TimeUnit.SECONDS.toNanos(1)) > 0);
+        assertTrue(bucket.isFull(now + TimeUnit.SECONDS.toNanos(4)));
+        assertEquals(3, bucket.getAvailableTokens(now + TimeUnit.SECONDS.toNanos(4)));
+    }
+
+    @Test
+    void neverHandsOutMoreThanCapacityUnderContention() throws Exception {
+        // the clock never moves, so nothing refills while the threads race
+        TokenBucket bucket = new TokenBucket(100, 1, clock::get);
+        AtomicInteger granted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            for (int t = 0; t < 8; t++) {
+                executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 1000; i++) {
+                        if (bucket.tryConsume()) {
+                            granted.incrementAndGet();
+                        }
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(100, granted.get());
+    }
+}